@@ -71,7 +71,7 @@ public final class PolymerSyncUtils {
      * Rebuild creative search index
      */
     public static void rebuildItemGroups(ServerPlayNetworkHandler handler) {
-        var ver = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_ITEM_GROUP_APPLY_UPDATE);
+        var ver = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_ITEM_GROUP_APPLY_UPDATE_KEY);
         if (ver > -1) {
             //handler.sendPacket(new CustomPayloadS2CPacketMixin(S2CPackets.SYNC_ITEM_GROUP_APPLY_UPDATE, PolymerServerNetworking.buf(ver)));
         }
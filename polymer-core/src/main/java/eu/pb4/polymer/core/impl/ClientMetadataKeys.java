@@ -1,5 +1,7 @@
 package eu.pb4.polymer.core.impl;
 
+import com.mojang.serialization.Codec;
+import eu.pb4.polymer.networking.api.MetadataKey;
 import net.minecraft.util.Identifier;
 import org.jetbrains.annotations.ApiStatus;
 
@@ -10,4 +12,9 @@ public class ClientMetadataKeys {
     public static final Identifier MINECRAFT_PROTOCOL = ServerMetadataKeys.MINECRAFT_PROTOCOL;
     public static final Identifier BLOCKSTATE_BITS = id("core/blockstate_bits");
     public static final Identifier ADVANCED_TOOLTIP = id("core/advanced_tooltip");
+    public static final Identifier SYNC_HASHES = id("core/sync_hashes");
+
+    public static final MetadataKey<Integer> MINECRAFT_PROTOCOL_KEY = ServerMetadataKeys.MINECRAFT_PROTOCOL_KEY;
+    public static final MetadataKey<Integer> BLOCKSTATE_BITS_KEY = MetadataKey.of(BLOCKSTATE_BITS, Codec.INT);
+    public static final MetadataKey<Boolean> ADVANCED_TOOLTIP_KEY = MetadataKey.of(ADVANCED_TOOLTIP, Codec.BOOL);
 }
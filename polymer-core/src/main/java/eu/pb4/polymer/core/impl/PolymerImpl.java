@@ -27,6 +27,8 @@ public final class PolymerImpl {
     public static final boolean LOG_MORE_ERRORS;
     public static final int LIGHT_UPDATE_TICK_DELAY;
     public static final boolean ITEMSTACK_NBT_HACK;
+    public static final int SYNC_FRAME_TARGET_SIZE;
+    public static final boolean BUILD_SYNC_PACKETS_OFF_THREAD;
 
     public static final boolean OVERRIDE_POLYMC_MINING;
 
@@ -40,6 +42,8 @@ public final class PolymerImpl {
         LOG_MORE_ERRORS = CommonImpl.LOG_MORE_ERRORS;
         SYNC_MODDED_ENTRIES_POLYMC = serverConfig.polyMcSyncModdedEntries && CompatStatus.POLYMC;
         LIGHT_UPDATE_TICK_DELAY = serverConfig.lightUpdateTickDelay;
+        SYNC_FRAME_TARGET_SIZE = Math.clamp(serverConfig.syncPacketTargetSize, 1024, 512 * 1024);
+        BUILD_SYNC_PACKETS_OFF_THREAD = serverConfig.buildSyncPacketsOffThread;
         ITEMSTACK_NBT_HACK = serverConfig.itemStackNbtHack;
         OVERRIDE_POLYMC_MINING = serverConfig.overridePolyMcMining;
 
@@ -15,6 +15,10 @@ public class ServerConfig {
     public boolean polyMcSyncModdedEntries = true;
     public String _c2 = "Delay from last light updates to syncing it to clients, in ticks";
     public int lightUpdateTickDelay = 1;
+    public String _c13 = "Target size of single registry sync packet, in bytes. Entries are split between packets once it's reached";
+    public int syncPacketTargetSize = 32768;
+    public String _c14 = "Builds registry sync packets on separate thread instead of the server or network threads, keeping their order";
+    public boolean buildSyncPacketsOffThread = true;
     public String _c4 = "Enables experimental passing of ItemStack context through nbt, allowing for better mod compat";
     @SerializedName("item_stack_nbt_hack")
     public boolean itemStackNbtHack = true;
@@ -1,5 +1,7 @@
 package eu.pb4.polymer.core.impl;
 
+import com.mojang.serialization.Codec;
+import eu.pb4.polymer.networking.api.MetadataKey;
 import eu.pb4.polymer.networking.api.server.PolymerServerNetworking;
 import net.minecraft.SharedConstants;
 import net.minecraft.nbt.NbtByte;
@@ -16,6 +18,8 @@ public class ServerMetadataKeys {
     public static final Identifier MINECRAFT_PROTOCOL = id("minecraft_protocol");
     public static final Identifier LIMITED_F3 = id("settings/limited_f3");
 
+    public static final MetadataKey<Integer> MINECRAFT_PROTOCOL_KEY = MetadataKey.of(MINECRAFT_PROTOCOL, Codec.INT);
+
     public static void setup() {
         PolymerServerNetworking.setServerMetadata(MINECRAFT_VERSION, NbtString.of(SharedConstants.getGameVersion().getName()));
         PolymerServerNetworking.setServerMetadata(MINECRAFT_PROTOCOL, NbtInt.of(SharedConstants.getProtocolVersion()));
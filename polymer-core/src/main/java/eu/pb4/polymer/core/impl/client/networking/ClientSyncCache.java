@@ -0,0 +1,93 @@
+package eu.pb4.polymer.core.impl.client.networking;
+
+import eu.pb4.polymer.core.impl.PolymerImpl;
+import eu.pb4.polymer.core.impl.networking.payloads.s2c.PolymerSyncHashS2CPayload;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps synced entries of recently joined servers, so they don't need to be sent again if they didn't change.
+ */
+@ApiStatus.Internal
+@Environment(EnvType.CLIENT)
+public final class ClientSyncCache {
+    private static final int MAX_SERVERS = 4;
+    private static final Map<String, Map<Identifier, Cached>> SERVERS = new LinkedHashMap<>(MAX_SERVERS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Map<Identifier, Cached>> eldest) {
+            return this.size() > MAX_SERVERS;
+        }
+    };
+    private static final Map<Identifier, List<Object>> PENDING = new HashMap<>();
+
+    private ClientSyncCache() {}
+
+    public static synchronized void startSync() {
+        PENDING.clear();
+    }
+
+    public static synchronized void finishSync() {
+        PENDING.clear();
+    }
+
+    public static synchronized void collect(Identifier packetId, List<?> entries) {
+        PENDING.computeIfAbsent(packetId, x -> new ArrayList<>()).addAll(entries);
+    }
+
+    /**
+     * Stores entries received since sync started or returns cached ones, if server skipped sending them.
+     */
+    @Nullable
+    public static synchronized List<Object> handleHash(PolymerSyncHashS2CPayload payload) {
+        var key = getServerKey();
+        var pending = PENDING.remove(payload.packetId());
+        if (key == null) {
+            return null;
+        }
+
+        var cache = SERVERS.computeIfAbsent(key, x -> new HashMap<>());
+        if (!payload.reuse()) {
+            cache.put(payload.packetId(), new Cached(payload.hash(), pending != null ? List.copyOf(pending) : List.of()));
+            return null;
+        }
+
+        var cached = cache.get(payload.packetId());
+        if (cached == null || cached.hash != payload.hash()) {
+            PolymerImpl.LOGGER.warn("Server skipped syncing '{}', but there is no matching cached data!", payload.packetId());
+            return null;
+        }
+        return cached.entries;
+    }
+
+    @Nullable
+    public static synchronized NbtCompound createHashes() {
+        var key = getServerKey();
+        var cache = key != null ? SERVERS.get(key) : null;
+        if (cache == null || cache.isEmpty()) {
+            return null;
+        }
+
+        var nbt = new NbtCompound();
+        cache.forEach((id, cached) -> nbt.putLong(id.toString(), cached.hash));
+        return nbt;
+    }
+
+    @Nullable
+    private static String getServerKey() {
+        var entry = MinecraftClient.getInstance().getCurrentServerEntry();
+        return entry != null ? entry.address : null;
+    }
+
+    private record Cached(long hash, List<Object> entries) {}
+}
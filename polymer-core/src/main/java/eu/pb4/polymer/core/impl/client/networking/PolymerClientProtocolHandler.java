@@ -49,6 +49,7 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -69,6 +70,7 @@ public class PolymerClientProtocolHandler {
 
         registerCommonHandler(PolymerSyncStartedS2CPayload.class, (handler, version, buf) -> {
             syncStarted = System.currentTimeMillis();
+            ClientSyncCache.startSync();
             PolymerClientUtils.ON_SYNC_STARTED.invoke(EventRunners.RUN);
         });
         registerCommonHandler(PolymerSyncFinishedS2CPayload.class, (handler, version, buf) -> {
@@ -76,6 +78,7 @@ public class PolymerClientProtocolHandler {
                 PolymerImpl.LOGGER.info("Polymer Sync took {} ms", System.currentTimeMillis() - syncStarted);
             }
 
+            ClientSyncCache.finishSync();
             PolymerClientUtils.ON_SYNC_FINISHED.invoke(EventRunners.RUN);
         });
 
@@ -93,6 +96,7 @@ public class PolymerClientProtocolHandler {
         });
 
         registerCommonHandler(PolymerGenericListPayload.class, PolymerClientProtocolHandler::handleGenericList);
+        registerCommonHandler(PolymerSyncHashS2CPayload.class, PolymerClientProtocolHandler::handleSyncHash);
 
         registerGenericListHandler(S2CPackets.SYNC_BLOCK, PolymerBlockEntry.class, (entry) -> InternalClientRegistry.BLOCKS.set(entry.identifier(), entry.numId(), new ClientPolymerBlock(entry.identifier(), entry.numId(), entry.text(), entry.visual(), Registries.BLOCK.get(entry.identifier()))));
         registerGenericListHandler(S2CPackets.SYNC_ITEM, PolymerItemEntry.class, (entry) -> {
@@ -137,6 +141,7 @@ public class PolymerClientProtocolHandler {
             PolymerClientNetworking.setClientMetadata(ClientMetadataKeys.ADVANCED_TOOLTIP, NbtByte.of(MinecraftClient.getInstance().options.advancedItemTooltips));
             PolymerClientNetworking.setClientMetadata(ClientMetadataKeys.BLOCKSTATE_BITS, NbtInt.of(MathHelper.ceilLog2(Block.STATE_IDS.size())));
             PolymerClientNetworking.setClientMetadata(ClientMetadataKeys.MINECRAFT_PROTOCOL, NbtInt.of(SharedConstants.getProtocolVersion()));
+            PolymerClientNetworking.setClientMetadata(ClientMetadataKeys.SYNC_HASHES, ClientSyncCache.createHashes());
         });
     }
 
@@ -352,16 +357,32 @@ public class PolymerClientProtocolHandler {
             return;
         }
 
+        ClientSyncCache.collect(payload.id().id(), payload.entries());
+        handleGenericEntries(payload.id().id(), payload.entries());
+    }
+
+    private static void handleSyncHash(MinecraftClient client, ClientCommonNetworkHandler handle, PolymerSyncHashS2CPayload payload) {
+        if (!InternalClientRegistry.enabled) {
+            return;
+        }
+
+        var entries = ClientSyncCache.handleHash(payload);
+        if (entries != null) {
+            handleGenericEntries(payload.packetId(), entries);
+        }
+    }
+
+    private static void handleGenericEntries(Identifier id, List<?> entries) {
         //noinspection unchecked
-        var consumer = (Consumer<Object>) GENERIC_LIST_HANDLERS.get(payload.id().id());
+        var consumer = (Consumer<Object>) GENERIC_LIST_HANDLERS.get(id);
 
         if (consumer != null) {
             try {
-                for (var entry : payload.entries()) {
+                for (var entry : entries) {
                     consumer.accept(entry);
                 }
             } catch (Throwable e) {
-                NetImpl.LOGGER.error("Handing of packet '" + payload.id() +"' failed!", e);
+                NetImpl.LOGGER.error("Handing of packet '" + id +"' failed!", e);
             }
         }
     }
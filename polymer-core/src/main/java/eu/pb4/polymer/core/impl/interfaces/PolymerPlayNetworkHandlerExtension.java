@@ -4,8 +4,11 @@ import eu.pb4.polymer.core.api.block.BlockMapper;
 import net.minecraft.network.packet.Packet;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
 import org.jetbrains.annotations.ApiStatus;
 
+import java.util.Map;
+
 @ApiStatus.Internal
 @SuppressWarnings({"unused"})
 public interface PolymerPlayNetworkHandlerExtension extends PolymerCommonNetworkHandlerExtension {
@@ -24,4 +27,9 @@ public interface PolymerPlayNetworkHandlerExtension extends PolymerCommonNetwork
     }
 
     void polymer$delayAfterSequence(Runnable runnable);
+
+    /**
+     * Content hashes of sync data sent to this player, safe to access from sync builder thread.
+     */
+    Map<Identifier, Long> polymer$getSentSyncHashes();
 }
@@ -3,15 +3,19 @@ package eu.pb4.polymer.core.impl.networking;
 import eu.pb4.polymer.core.api.item.PolymerItemGroupUtils;
 import eu.pb4.polymer.core.api.utils.PolymerSyncUtils;
 import eu.pb4.polymer.core.api.utils.PolymerSyncedObject;
+import eu.pb4.polymer.core.impl.ClientMetadataKeys;
 import eu.pb4.polymer.core.impl.PolymerImpl;
 import eu.pb4.polymer.core.impl.PolymerImplUtils;
 import eu.pb4.polymer.core.impl.interfaces.PolymerBlockPosStorage;
 import eu.pb4.polymer.core.impl.interfaces.PolymerIdList;
+import eu.pb4.polymer.core.impl.interfaces.PolymerPlayNetworkHandlerExtension;
 import eu.pb4.polymer.core.impl.interfaces.RegistryExtension;
 import eu.pb4.polymer.core.impl.networking.entry.*;
 import eu.pb4.polymer.core.impl.networking.payloads.*;
 import eu.pb4.polymer.core.impl.networking.payloads.s2c.*;
+import eu.pb4.polymer.networking.api.ContextByteBuf;
 import eu.pb4.polymer.networking.api.server.PolymerServerNetworking;
+import eu.pb4.polymer.networking.impl.ExtClientConnection;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.shorts.ShortArrayList;
 import net.minecraft.block.Block;
@@ -19,6 +23,10 @@ import net.minecraft.block.BlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
 import net.minecraft.item.ItemGroup;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.codec.PacketCodec;
 import net.minecraft.network.packet.CustomPayload;
 import net.minecraft.network.packet.s2c.common.CustomPayloadS2CPacket;
 import net.minecraft.registry.Registries;
@@ -30,17 +38,29 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.world.chunk.WorldChunk;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.packettweaker.PacketContext;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 @ApiStatus.Internal
 public class PolymerServerProtocol {
+    private static final ExecutorService SYNC_BUILDER = Executors.newSingleThreadExecutor((runnable) -> {
+        var thread = new Thread(runnable, "Polymer Sync Builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public static void sendBlockUpdate(ServerPlayNetworkHandler player, BlockPos pos, BlockState state) {
-        var version = PolymerServerNetworking.getSupportedVersion(player, S2CPackets.WORLD_SET_BLOCK_UPDATE);
+        var version = PolymerServerNetworking.getSupportedVersion(player, S2CPackets.WORLD_SET_BLOCK_UPDATE_KEY);
 
         if (PolymerImplUtils.POLYMER_STATES.contains(state) && version > -1) {
             player.sendPacket(new CustomPayloadS2CPacket(new PolymerBlockUpdateS2CPayload(pos, Block.STATE_IDS.getRawId(state))));
@@ -48,7 +68,7 @@ public class PolymerServerProtocol {
     }
 
     public static void sendMultiBlockUpdate(ServerPlayNetworkHandler player, ChunkSectionPos chunkPos, short[] positions, BlockState[] blockStates) {
-        var version = PolymerServerNetworking.getSupportedVersion(player, S2CPackets.WORLD_CHUNK_SECTION_UPDATE);
+        var version = PolymerServerNetworking.getSupportedVersion(player, S2CPackets.WORLD_CHUNK_SECTION_UPDATE_KEY);
 
         if (version > -1) {
             var blocks = new IntArrayList();
@@ -68,7 +88,7 @@ public class PolymerServerProtocol {
     }
 
     public static void sendSectionUpdate(ServerPlayNetworkHandler player, WorldChunk chunk) {
-        var version = PolymerServerNetworking.getSupportedVersion(player, S2CPackets.WORLD_CHUNK_SECTION_UPDATE);
+        var version = PolymerServerNetworking.getSupportedVersion(player, S2CPackets.WORLD_CHUNK_SECTION_UPDATE_KEY);
 
         if (version > -1) {
             var wci = (PolymerBlockPosStorage) chunk;
@@ -102,7 +122,7 @@ public class PolymerServerProtocol {
 
 
     public static void sendSyncPackets(ServerPlayNetworkHandler handler, boolean fullSync) {
-        if (PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_STARTED) == -1) {
+        if (PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_STARTED_KEY) == -1) {
             return;
         }
 
@@ -112,13 +132,16 @@ public class PolymerServerProtocol {
         handler.sendPacket(new CustomPayloadS2CPacket(new PolymerSyncStartedS2CPayload()));
         PolymerSyncUtils.ON_SYNC_STARTED.invoke((c) -> c.accept(handler));
 
-        version = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_CLEAR);
+        version = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_CLEAR_KEY);
         if (version != -1) {
             handler.sendPacket(new CustomPayloadS2CPacket(new PolymerSyncClearS2CPayload()));
         }
 
+        var revision = PolymerSyncCache.getRevision();
+
         PolymerSyncUtils.BEFORE_ITEM_SYNC.invoke((listener) -> listener.accept(handler, fullSync));
-        sendSync(handler, S2CPackets.SYNC_ITEM_ID, getServerSideEntries(Registries.ITEM), false, PolymerItemEntry::of);
+        var items = List.copyOf(getServerSideEntries(Registries.ITEM));
+        runSyncTask(handler, (sender) -> sendCachedSync(handler, sender, revision, S2CPackets.SYNC_ITEM_ID, PolymerItemEntry.CODEC, () -> createEntries(items, item -> PolymerItemEntry.of(item, handler, 0))));
         PolymerSyncUtils.AFTER_ITEM_SYNC.invoke((listener) -> listener.accept(handler, fullSync));
 
         if (fullSync) {
@@ -130,26 +153,30 @@ public class PolymerServerProtocol {
         }
 
         PolymerSyncUtils.BEFORE_BLOCK_SYNC.invoke((listener) -> listener.accept(handler, fullSync));
-        sendSync(handler, S2CPackets.SYNC_BLOCK_ID, getServerSideEntries(Registries.BLOCK), false, PolymerBlockEntry::of);
+        var blocks = List.copyOf(getServerSideEntries(Registries.BLOCK));
+        runSyncTask(handler, (sender) -> sendCachedSync(handler, sender, revision, S2CPackets.SYNC_BLOCK_ID, PolymerBlockEntry.CODEC, () -> createEntries(blocks, PolymerBlockEntry::of)));
         PolymerSyncUtils.AFTER_BLOCK_SYNC.invoke((listener) -> listener.accept(handler, fullSync));
 
         PolymerSyncUtils.BEFORE_BLOCK_STATE_SYNC.invoke((listener) -> listener.accept(handler, fullSync));
-        sendSync(handler, S2CPackets.SYNC_BLOCKSTATE_ID, getServerSideEntries(Block.STATE_IDS), false, PolymerBlockStateEntry::of);
+        var blockStates = List.copyOf(getServerSideEntries(Block.STATE_IDS));
+        runSyncTask(handler, (sender) -> sendEncodedSync(handler, sender, revision, S2CPackets.SYNC_BLOCKSTATE_ID, PolymerBlockStateEntry.CODEC, () -> createEntries(blockStates, PolymerBlockStateEntry::of)));
         PolymerSyncUtils.AFTER_BLOCK_STATE_SYNC.invoke((listener) -> listener.accept(handler, fullSync));
 
 
         PolymerSyncUtils.BEFORE_ENTITY_SYNC.invoke((listener) -> listener.accept(handler, fullSync));
-        sendSync(handler, S2CPackets.SYNC_ENTITY_ID, getServerSideEntries(Registries.ENTITY_TYPE), false, PolymerEntityEntry::of);
+        var entityTypes = List.copyOf(getServerSideEntries(Registries.ENTITY_TYPE));
+        runSyncTask(handler, (sender) -> sendCachedSync(handler, sender, revision, S2CPackets.SYNC_ENTITY_ID, PolymerEntityEntry.CODEC, () -> createEntries(entityTypes, PolymerEntityEntry::of)));
         PolymerSyncUtils.AFTER_ENTITY_SYNC.invoke((listener) -> listener.accept(handler, fullSync));
 
 
-        sendSync(handler, S2CPackets.SYNC_VILLAGER_PROFESSION_ID, Registries.VILLAGER_PROFESSION);
-        sendSync(handler, S2CPackets.SYNC_STATUS_EFFECT_ID, Registries.STATUS_EFFECT);
-        sendSync(handler, S2CPackets.SYNC_BLOCK_ENTITY_ID, Registries.BLOCK_ENTITY_TYPE);
-        sendSync(handler, S2CPackets.SYNC_FLUID_ID, Registries.FLUID);
+        sendSync(handler, revision, S2CPackets.SYNC_VILLAGER_PROFESSION_ID, Registries.VILLAGER_PROFESSION);
+        sendSync(handler, revision, S2CPackets.SYNC_STATUS_EFFECT_ID, Registries.STATUS_EFFECT);
+        sendSync(handler, revision, S2CPackets.SYNC_BLOCK_ENTITY_ID, Registries.BLOCK_ENTITY_TYPE);
+        sendSync(handler, revision, S2CPackets.SYNC_FLUID_ID, Registries.FLUID);
 
         if (fullSync) {
-            sendSync(handler, S2CPackets.SYNC_TAGS_ID, (Registry<Registry<Object>>) Registries.REGISTRIES, true, PolymerTagEntry::of);
+            var tags = collectEntries(handler, S2CPackets.SYNC_TAGS_ID, (Registry<Registry<Object>>) Registries.REGISTRIES, true, PolymerTagEntry::of);
+            runSyncTask(handler, (sender) -> sendEntries(handler, sender, S2CPackets.SYNC_TAGS_ID, PolymerTagEntry.CODEC, tags));
         }
 
         PolymerSyncUtils.ON_SYNC_CUSTOM.invoke((c) -> c.accept(handler, fullSync));
@@ -160,8 +187,31 @@ public class PolymerServerProtocol {
 
 
         if (PolymerImpl.LOG_SYNC_TIME) {
-            PolymerImpl.LOGGER.info((fullSync ? "Full" : "Partial") + " sync for {} took {} ms", handler.player.getGameProfile().getName(), ((System.nanoTime() - startTime) / 10000) / 100d);
+            runSyncTask(handler, (sender) -> PolymerImpl.LOGGER.info((fullSync ? "Full" : "Partial") + " sync for {} took {} ms", handler.player.getGameProfile().getName(), ((System.nanoTime() - startTime) / 10000) / 100d));
+        }
+    }
+
+    /**
+     * Runs task building sync packets. If enabled, it's executed on separate sync builder thread, with connection
+     * holding back packets sent after scheduling it until built ones are sent, so their order doesn't change.
+     */
+    private static void runSyncTask(ServerPlayNetworkHandler handler, Consumer<Consumer<Packet<?>>> task) {
+        if (PolymerImpl.BUILD_SYNC_PACKETS_OFF_THREAD) {
+            var channel = ExtClientConnection.of(handler).polymerNet$getChannel();
+            if (channel != null && channel.isOpen()) {
+                ExtClientConnection.of(handler).polymerNet$sendLater(CompletableFuture.supplyAsync(() -> {
+                    var packets = new ArrayList<Packet<?>>();
+                    try {
+                        task.accept(packets::add);
+                    } catch (Throwable e) {
+                        PolymerImpl.LOGGER.error("Failed to build sync packets for {}!", handler.player.getGameProfile().getName(), e);
+                    }
+                    return packets;
+                }, SYNC_BUILDER));
+                return;
+            }
         }
+        task.accept(handler::sendPacket);
     }
 
     private static <T> Collection<T> getServerSideEntries(IndexedIterable<T> registry) {
@@ -174,13 +224,96 @@ public class PolymerServerProtocol {
         return List.of();
     }
 
-    private static void sendSync(ServerPlayNetworkHandler handler, CustomPayload.Id<PolymerGenericListPayload<IdValueEntry>> packetId, Registry registry) {
-        sendSync(handler, packetId, getServerSideEntries(registry), false,
-                type -> new IdValueEntry(registry.getRawId(type), registry.getId(type)));
+    private static void sendSync(ServerPlayNetworkHandler handler, int revision, CustomPayload.Id<PolymerGenericListPayload<IdValueEntry>> packetId, Registry registry) {
+        var entries = List.copyOf((Collection<Object>) getServerSideEntries(registry));
+        runSyncTask(handler, (sender) -> sendEncodedSync(handler, sender, revision, packetId, IdValueEntry.CODEC, () -> createEntries(entries,
+                type -> new IdValueEntry(registry.getRawId(type), registry.getId(type)))));
+    }
+
+    private static <T, A> List<A> createEntries(Collection<T> source, Function<T, A> creator) {
+        var list = new ArrayList<A>(source.size());
+        for (var entry : source) {
+            var val = creator.apply(entry);
+            if (val != null) {
+                list.add(val);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Sends entries shared between all players, that are only encoded separately (as they can depend on player).
+     */
+    private static <A> void sendCachedSync(ServerPlayNetworkHandler handler, Consumer<Packet<?>> sender, int revision, CustomPayload.Id<PolymerGenericListPayload<A>> packetId,
+                                           PacketCodec<ContextByteBuf, A> codec, Supplier<List<A>> creator) {
+        var version = PolymerServerNetworking.getSupportedVersion(handler, packetId.id());
+        if (version == -1) {
+            return;
+        }
+
+        sendFrames(handler, sender, packetId, SyncFrameWriter.write(packetId, codec, handler, version, PolymerSyncCache.getEntries(packetId, revision, creator)));
+    }
+
+    /**
+     * Sends entries encoded once per protocol version and shared between all players.
+     */
+    private static <A> void sendEncodedSync(ServerPlayNetworkHandler handler, Consumer<Packet<?>> sender, int revision, CustomPayload.Id<PolymerGenericListPayload<A>> packetId,
+                                            PacketCodec<ContextByteBuf, A> codec, Supplier<List<A>> creator) {
+        var version = PolymerServerNetworking.getSupportedVersion(handler, packetId.id());
+        if (version == -1) {
+            return;
+        }
+
+        sendFrames(handler, sender, packetId, PolymerSyncCache.getEncodedPayloads(packetId, revision, version, codec, handler, creator));
+    }
+
+    /**
+     * Sends sync frames, unless client reported having the same content cached from previous sync.
+     */
+    private static <A> void sendFrames(ServerPlayNetworkHandler handler, Consumer<Packet<?>> sender, CustomPayload.Id<PolymerGenericListPayload<A>> packetId, SyncFrameWriter.Frames<A> frames) {
+        var reusable = canReuse(handler, packetId);
+        if (reusable) {
+            var hash = getClientSyncHash(handler, packetId);
+            if (hash != null && hash == frames.hash()) {
+                sender.accept(new CustomPayloadS2CPacket(new PolymerSyncHashS2CPayload(packetId.id(), frames.hash(), true)));
+                SyncFrameWriter.logFrames(handler, packetId, frames, true);
+                return;
+            }
+        }
+
+        for (var payload : frames.payloads()) {
+            sender.accept(new CustomPayloadS2CPacket(payload));
+        }
+
+        if (reusable) {
+            sender.accept(new CustomPayloadS2CPacket(new PolymerSyncHashS2CPayload(packetId.id(), frames.hash(), false)));
+            PolymerPlayNetworkHandlerExtension.of(handler).polymer$getSentSyncHashes().put(packetId.id(), frames.hash());
+        }
+        SyncFrameWriter.logFrames(handler, packetId, frames, false);
+    }
+
+    /**
+     * Returns hash of content client has cached, preferring ones sent during this connection over ones reported by client.
+     */
+    @Nullable
+    private static Long getClientSyncHash(ServerPlayNetworkHandler handler, CustomPayload.Id<?> packetId) {
+        var hash = PolymerPlayNetworkHandlerExtension.of(handler).polymer$getSentSyncHashes().get(packetId.id());
+        if (hash != null) {
+            return hash;
+        }
+        var hashes = PolymerServerNetworking.getMetadata(handler, ClientMetadataKeys.SYNC_HASHES, NbtCompound.TYPE);
+        var key = packetId.id().toString();
+        return hashes != null && hashes.contains(key, NbtElement.LONG_TYPE) ? hashes.getLong(key) : null;
+    }
+
+    private static boolean canReuse(ServerPlayNetworkHandler handler, CustomPayload.Id<?> packetId) {
+        // Item and block entries contain stacks bound to registries of connection they were received with
+        return packetId != S2CPackets.SYNC_ITEM_ID && packetId != S2CPackets.SYNC_BLOCK_ID && packetId != S2CPackets.DEBUG_VALIDATE_STATES_ID
+                && PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_HASH_KEY) != -1;
     }
 
     public static void sendCreativeSyncPackets(ServerPlayNetworkHandler handler) {
-        var version = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_ITEM_GROUP_DEFINE);
+        var version = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_ITEM_GROUP_DEFINE_KEY);
 
         if (version != -1) {
             for (var group : PolymerItemGroupUtils.getItemGroups(handler.getPlayer())) {
@@ -201,7 +334,7 @@ public class PolymerServerProtocol {
     }
 
     public static void syncItemGroupContents(ItemGroup group, ServerPlayNetworkHandler handler) {
-        var version = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_ITEM_GROUP_CONTENTS_ADD);
+        var version = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_ITEM_GROUP_CONTENTS_ADD_KEY);
 
         if (version != -1) {
             var id = PolymerItemGroupUtils.getId(group);
@@ -223,7 +356,7 @@ public class PolymerServerProtocol {
     }
 
     public static void syncItemGroupDefinition(ItemGroup group, ServerPlayNetworkHandler handler) {
-        var version = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_ITEM_GROUP_DEFINE);
+        var version = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.SYNC_ITEM_GROUP_DEFINE_KEY);
 
         if (version > -1 && (PolymerImpl.SYNC_MODDED_ENTRIES_POLYMC || PolymerItemGroupUtils.isPolymerItemGroup(group))) {
             var id = PolymerItemGroupUtils.getId(group);
@@ -234,7 +367,7 @@ public class PolymerServerProtocol {
     }
 
     public static void removeItemGroup(ItemGroup group, ServerPlayNetworkHandler player) {
-        var version = PolymerServerNetworking.getSupportedVersion(player, S2CPackets.SYNC_ITEM_GROUP_REMOVE);
+        var version = PolymerServerNetworking.getSupportedVersion(player, S2CPackets.SYNC_ITEM_GROUP_REMOVE_KEY);
 
         if (version > -1 && PolymerItemGroupUtils.isPolymerItemGroup(group)) {
             var x = PolymerItemGroupUtils.REGISTRY.getId(group);
@@ -249,7 +382,7 @@ public class PolymerServerProtocol {
     }
 
     public static void sendEntityInfo(ServerPlayNetworkHandler player, int id, EntityType<?> type) {
-        var version = PolymerServerNetworking.getSupportedVersion(player, S2CPackets.WORLD_ENTITY);
+        var version = PolymerServerNetworking.getSupportedVersion(player, S2CPackets.WORLD_ENTITY_KEY);
 
         if (version != -1) {
             player.sendPacket(new CustomPayloadS2CPacket(new PolymerEntityS2CPayload(id, Registries.ENTITY_TYPE.getId(type))));
@@ -257,24 +390,23 @@ public class PolymerServerProtocol {
     }
 
 
-    private static <T> void sendSync(ServerPlayNetworkHandler handler, CustomPayload.Id<PolymerGenericListPayload<T>> id, List<T> entries) {
-        handler.sendPacket(new CustomPayloadS2CPacket(new PolymerGenericListPayload<>(id, List.copyOf(entries))));
-        entries.clear();
+    private static <T, A> void sendSync(ServerPlayNetworkHandler handler, CustomPayload.Id<PolymerGenericListPayload<A>> packetId, PacketCodec<ContextByteBuf, A> codec, Iterable<T> iterable, boolean bypassPolymerCheck, Function<T, A> writableFunction) {
+        sendSync(handler, packetId, codec, iterable, bypassPolymerCheck, (a, b, c) -> writableFunction.apply(a));
     }
 
-    private static <T, A> void sendSync(ServerPlayNetworkHandler handler, CustomPayload.Id<PolymerGenericListPayload<A>> packetId, Iterable<T> iterable, boolean bypassPolymerCheck, Function<T, A> writableFunction) {
-        sendSync(handler, packetId, iterable, bypassPolymerCheck, (a, b, c) -> writableFunction.apply(a));
+    private static <T, A> void sendSync(ServerPlayNetworkHandler handler, CustomPayload.Id<PolymerGenericListPayload<A>> packetId, PacketCodec<ContextByteBuf, A> codec, Iterable<T> iterable, boolean bypassPolymerCheck, BufferWritableCreator<T, A> writableFunction) {
+        sendEntries(handler, handler::sendPacket, packetId, codec, collectEntries(handler, packetId, iterable, bypassPolymerCheck, writableFunction));
     }
 
-    private static <T, A> void sendSync(ServerPlayNetworkHandler handler, CustomPayload.Id<PolymerGenericListPayload<A>> packetId, Iterable<T> iterable, boolean bypassPolymerCheck, BufferWritableCreator<T, A> writableFunction) {
+    private static <T, A> List<A> collectEntries(ServerPlayNetworkHandler handler, CustomPayload.Id<PolymerGenericListPayload<A>> packetId, Iterable<T> iterable, boolean bypassPolymerCheck, BufferWritableCreator<T, A> writableFunction) {
         var version = PolymerServerNetworking.getSupportedVersion(handler, packetId.id());
 
         if (iterable instanceof RegistryExtension && !bypassPolymerCheck) {
             iterable = ((RegistryExtension<T>) iterable).polymer$getEntries();
         }
 
+        var entries = new ArrayList<A>();
         if (version != -1) {
-            var entries = new ArrayList<A>();
             var ctx = PacketContext.create(handler);
             for (var entry : iterable) {
                 if (!bypassPolymerCheck || (entry instanceof PolymerSyncedObject<?> obj && obj.canSynchronizeToPolymerClient(ctx))) {
@@ -282,24 +414,24 @@ public class PolymerServerProtocol {
                     if (val != null) {
                         entries.add(val);
                     }
-
-                    if (entries.size() > 100) {
-                        sendSync(handler, packetId, entries);
-                    }
                 }
             }
+        }
+        return entries;
+    }
 
-            if (!entries.isEmpty()) {
-                sendSync(handler, packetId, entries);
-            }
+    private static <A> void sendEntries(ServerPlayNetworkHandler handler, Consumer<Packet<?>> sender, CustomPayload.Id<PolymerGenericListPayload<A>> packetId, PacketCodec<ContextByteBuf, A> codec, List<A> entries) {
+        var version = PolymerServerNetworking.getSupportedVersion(handler, packetId.id());
+        if (version != -1) {
+            sendFrames(handler, sender, packetId, SyncFrameWriter.write(packetId, codec, handler, version, entries));
         }
     }
 
     public static void sendDebugValidateStatesPackets(ServerPlayNetworkHandler handler) {
-        var version = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.DEBUG_VALIDATE_STATES);
+        var version = PolymerServerNetworking.getSupportedVersion(handler, S2CPackets.DEBUG_VALIDATE_STATES_KEY);
 
         if (version != -1) {
-            sendSync(handler, S2CPackets.DEBUG_VALIDATE_STATES_ID, Block.STATE_IDS, true, DebugBlockStateEntry::of);
+            sendSync(handler, S2CPackets.DEBUG_VALIDATE_STATES_ID, DebugBlockStateEntry.CODEC, Block.STATE_IDS, true, DebugBlockStateEntry::of);
         }
     }
 
@@ -0,0 +1,82 @@
+package eu.pb4.polymer.core.impl.networking;
+
+import eu.pb4.polymer.core.impl.networking.payloads.PolymerGenericListPayload;
+import eu.pb4.polymer.networking.api.ContextByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Sync data shared between players. Invalidated every time polymer entries of any registry change.
+ */
+@ApiStatus.Internal
+public final class PolymerSyncCache {
+    private static final Map<Identifier, Cached<?>> ENTRIES = new ConcurrentHashMap<>();
+    private static final Map<EncodedKey, Cached<?>> PAYLOADS = new ConcurrentHashMap<>();
+    private static volatile int revision = 0;
+
+    private PolymerSyncCache() {}
+
+    public static void invalidate() {
+        revision++;
+        ENTRIES.clear();
+        PAYLOADS.clear();
+    }
+
+    public static int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Returns entries created once, for sync packets that still need to be encoded separately for each player.
+     * Revision should be taken together with snapshot used by creator, so outdated entries never get cached.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> List<A> getEntries(CustomPayload.Id<PolymerGenericListPayload<A>> id, int expectedRevision, Supplier<List<A>> creator) {
+        var cached = (Cached<List<A>>) ENTRIES.get(id.id());
+        if (cached == null || cached.revision != expectedRevision) {
+            cached = new Cached<>(expectedRevision, List.copyOf(creator.get()));
+            store(ENTRIES, id.id(), cached);
+        }
+        return cached.value;
+    }
+
+    /**
+     * Returns payloads with entries encoded once per protocol version. Only usable for entries that encode
+     * the same way for every player, as they are encoded without player context. Their content hash is computed once as well.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> SyncFrameWriter.Frames<A> getEncodedPayloads(CustomPayload.Id<PolymerGenericListPayload<A>> id, int expectedRevision, int version, PacketCodec<ContextByteBuf, A> codec,
+                                                                             ServerPlayNetworkHandler handler, Supplier<List<A>> creator) {
+        var key = new EncodedKey(id.id(), version);
+        var cached = (Cached<SyncFrameWriter.Frames<A>>) PAYLOADS.get(key);
+        if (cached == null || cached.revision != expectedRevision) {
+            cached = new Cached<>(expectedRevision, SyncFrameWriter.writeShared(id, codec, handler, version, getEntries(id, expectedRevision, creator)));
+            store(PAYLOADS, key, cached);
+        }
+        return cached.value;
+    }
+
+    /**
+     * Caches value only if it was created for current revision, removing it again if cache got invalidated in the meantime.
+     */
+    private static <K> void store(Map<K, Cached<?>> map, K key, Cached<?> cached) {
+        if (cached.revision == revision) {
+            map.put(key, cached);
+            if (cached.revision != revision) {
+                map.remove(key, cached);
+            }
+        }
+    }
+
+    private record EncodedKey(Identifier id, int version) {}
+
+    private record Cached<T>(int revision, T value) {}
+}
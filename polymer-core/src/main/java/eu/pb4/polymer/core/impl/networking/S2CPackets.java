@@ -5,7 +5,9 @@ import eu.pb4.polymer.core.impl.networking.entry.*;
 import eu.pb4.polymer.core.impl.networking.payloads.*;
 import eu.pb4.polymer.core.impl.networking.payloads.s2c.*;
 import eu.pb4.polymer.networking.api.ContextByteBuf;
+import eu.pb4.polymer.networking.api.PayloadKey;
 import eu.pb4.polymer.networking.api.PolymerNetworking;
+import eu.pb4.polymer.networking.api.server.PolymerServerNetworking;
 import it.unimi.dsi.fastutil.ints.IntList;
 import net.minecraft.network.codec.PacketCodec;
 import net.minecraft.network.packet.CustomPayload;
@@ -35,12 +37,25 @@ public class S2CPackets {
     public static final Identifier SYNC_TAGS= id("sync/tags");
     public static final Identifier SYNC_ITEM_GROUP_APPLY_UPDATE = id("sync/item_group/apply_update");
     public static final Identifier SYNC_CLEAR= id("sync/clear_all");
+    public static final Identifier SYNC_HASH = id("sync/hash");
     public static final Identifier WORLD_SET_BLOCK_UPDATE= id("world/set_block");
     public static final Identifier WORLD_CHUNK_SECTION_UPDATE= id("world/section");
     public static final Identifier WORLD_ENTITY = id("world/entity");
 
     public static final Identifier DEBUG_VALIDATE_STATES = id("debug/validate_states");
 
+    public static final PayloadKey<?> SYNC_STARTED_KEY = PayloadKey.of(SYNC_STARTED);
+    public static final PayloadKey<?> SYNC_CLEAR_KEY = PayloadKey.of(SYNC_CLEAR);
+    public static final PayloadKey<?> SYNC_HASH_KEY = PayloadKey.of(SYNC_HASH);
+    public static final PayloadKey<?> SYNC_ITEM_GROUP_DEFINE_KEY = PayloadKey.of(SYNC_ITEM_GROUP_DEFINE);
+    public static final PayloadKey<?> SYNC_ITEM_GROUP_CONTENTS_ADD_KEY = PayloadKey.of(SYNC_ITEM_GROUP_CONTENTS_ADD);
+    public static final PayloadKey<?> SYNC_ITEM_GROUP_REMOVE_KEY = PayloadKey.of(SYNC_ITEM_GROUP_REMOVE);
+    public static final PayloadKey<?> SYNC_ITEM_GROUP_APPLY_UPDATE_KEY = PayloadKey.of(SYNC_ITEM_GROUP_APPLY_UPDATE);
+    public static final PayloadKey<?> WORLD_SET_BLOCK_UPDATE_KEY = PayloadKey.of(WORLD_SET_BLOCK_UPDATE);
+    public static final PayloadKey<?> WORLD_CHUNK_SECTION_UPDATE_KEY = PayloadKey.of(WORLD_CHUNK_SECTION_UPDATE);
+    public static final PayloadKey<?> WORLD_ENTITY_KEY = PayloadKey.of(WORLD_ENTITY);
+    public static final PayloadKey<?> DEBUG_VALIDATE_STATES_KEY = PayloadKey.of(DEBUG_VALIDATE_STATES);
+
     public static <T extends CustomPayload> void register(Identifier id, PacketCodec<ContextByteBuf, T> codec, int... ver) {
         PolymerNetworking.registerS2CVersioned(id, IntList.of(ver), codec);
     }
@@ -70,6 +85,7 @@ public class S2CPackets {
         register(SYNC_STARTED, PolymerSyncStartedS2CPayload::new, 6);
         register(SYNC_FINISHED, PolymerSyncFinishedS2CPayload::new, 6);
         register(SYNC_CLEAR, PolymerSyncClearS2CPayload::new, 6);
+        register(SYNC_HASH, PolymerSyncHashS2CPayload.CODEC, 0);
 
         SYNC_BLOCK_ID = registerList(SYNC_BLOCK, PolymerBlockEntry.CODEC,9);
         SYNC_BLOCKSTATE_ID = registerList(SYNC_BLOCKSTATE, PolymerBlockStateEntry.CODEC, 9);
@@ -93,5 +109,12 @@ public class S2CPackets {
         register(WORLD_SET_BLOCK_UPDATE, PolymerBlockUpdateS2CPayload.CODEC,9);
         register(WORLD_CHUNK_SECTION_UPDATE, PolymerSectionUpdateS2CPayload.CODEC, 9);
         register(WORLD_ENTITY, PolymerEntityS2CPayload.CODEC, 9);
+
+        PolymerServerNetworking.allowBatching(SYNC_ITEM_GROUP_DEFINE);
+        PolymerServerNetworking.allowBatching(SYNC_ITEM_GROUP_CONTENTS_CLEAR);
+        PolymerServerNetworking.allowBatching(SYNC_ITEM_GROUP_REMOVE);
+        PolymerServerNetworking.allowBatching(SYNC_ITEM_GROUP_APPLY_UPDATE);
+        PolymerServerNetworking.allowBatching(WORLD_SET_BLOCK_UPDATE);
+        PolymerServerNetworking.allowBatching(WORLD_ENTITY);
     }
 }
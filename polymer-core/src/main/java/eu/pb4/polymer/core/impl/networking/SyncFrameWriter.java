@@ -0,0 +1,136 @@
+package eu.pb4.polymer.core.impl.networking;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import eu.pb4.polymer.common.api.PolymerCommonUtils;
+import eu.pb4.polymer.core.impl.PolymerImpl;
+import eu.pb4.polymer.core.impl.networking.payloads.PolymerGenericListPayload;
+import eu.pb4.polymer.networking.api.ContextByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import org.jetbrains.annotations.ApiStatus;
+import xyz.nucleoid.packettweaker.PacketContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes sync entries into list payloads, starting new frame once encoded entries reach configured size.
+ */
+@ApiStatus.Internal
+public final class SyncFrameWriter<A> {
+    private final CustomPayload.Id<PolymerGenericListPayload<A>> id;
+    private final PacketCodec<ContextByteBuf, A> codec;
+    private final int version;
+    private final ContextByteBuf buf;
+    private final List<A> entries = new ArrayList<>();
+    private final List<PolymerGenericListPayload<A>> payloads = new ArrayList<>();
+    private final Hasher hasher = Hashing.murmur3_128().newHasher();
+
+    public SyncFrameWriter(CustomPayload.Id<PolymerGenericListPayload<A>> id, PacketCodec<ContextByteBuf, A> codec, ServerPlayNetworkHandler handler, int version) {
+        this.id = id;
+        this.codec = codec;
+        this.version = version;
+        this.buf = new ContextByteBuf(PacketContext.create(handler), version, Unpooled.buffer(), handler.player.getRegistryManager());
+        this.hasher.putUnencodedChars(id.id().toString()).putInt(version);
+    }
+
+    /**
+     * Encodes entries for selected player. As it happens outside of packet pipeline, player is set as current packet context,
+     * so codecs replacing items, text and other values work the same way they do for regular packets.
+     */
+    public static <A> Frames<A> write(CustomPayload.Id<PolymerGenericListPayload<A>> id, PacketCodec<ContextByteBuf, A> codec,
+                                      ServerPlayNetworkHandler handler, int version, List<A> entries) {
+        return write(id, codec, handler, version, entries, true);
+    }
+
+    /**
+     * Encodes entries shared between all players, without any player set as current packet context.
+     * Handler is only used for registry access, so it can be any player supporting selected version.
+     */
+    public static <A> Frames<A> writeShared(CustomPayload.Id<PolymerGenericListPayload<A>> id, PacketCodec<ContextByteBuf, A> codec,
+                                            ServerPlayNetworkHandler handler, int version, List<A> entries) {
+        return write(id, codec, handler, version, entries, false);
+    }
+
+    private static <A> Frames<A> write(CustomPayload.Id<PolymerGenericListPayload<A>> id, PacketCodec<ContextByteBuf, A> codec,
+                                       ServerPlayNetworkHandler handler, int version, List<A> entries, boolean playerContext) {
+        var writer = new SyncFrameWriter<>(id, codec, handler, version);
+        Runnable task = () -> {
+            for (int i = 0; i < entries.size(); i++) {
+                writer.add(entries.get(i));
+            }
+        };
+        if (playerContext) {
+            PolymerCommonUtils.executeWithNetworkingLogic(handler, task);
+        } else {
+            PolymerCommonUtils.executeWithNetworkingLogic(() -> PacketContext.runWithContext(null, task));
+        }
+        return writer.finish();
+    }
+
+    public void add(A entry) {
+        var start = this.buf.writerIndex();
+        this.codec.encode(this.buf, entry);
+        if (this.buf.writerIndex() > PolymerImpl.SYNC_FRAME_TARGET_SIZE && !this.entries.isEmpty()) {
+            this.flush(start);
+        }
+        this.entries.add(entry);
+    }
+
+    public Frames<A> finish() {
+        if (!this.entries.isEmpty()) {
+            this.flush(this.buf.writerIndex());
+        }
+        this.buf.release();
+        return new Frames<>(List.copyOf(this.payloads), this.hasher.hash().asLong());
+    }
+
+    private void flush(int end) {
+        var frame = new PacketByteBuf(Unpooled.buffer(end + 5));
+        try {
+            frame.writeVarInt(this.entries.size());
+            frame.writeBytes(this.buf, 0, end);
+            var bytes = ByteBufUtil.getBytes(frame);
+            this.hasher.putBytes(bytes);
+            this.payloads.add(new PolymerGenericListPayload<>(this.id, List.copyOf(this.entries), new PolymerGenericListPayload.Encoded(this.version, bytes)));
+        } finally {
+            frame.release();
+        }
+        this.entries.clear();
+        this.buf.readerIndex(end);
+        this.buf.discardReadBytes();
+    }
+
+    public static void logFrames(ServerPlayNetworkHandler handler, CustomPayload.Id<?> id, Frames<?> frames, boolean reused) {
+        var payloads = frames.payloads();
+        if (!PolymerImpl.LOG_SYNC_TIME || payloads.isEmpty()) {
+            return;
+        }
+        if (reused) {
+            PolymerImpl.LOGGER.info("Skipped syncing {} to {}, as client already has matching {} frames", id.id(), handler.player.getGameProfile().getName(), payloads.size());
+            return;
+        }
+        int entries = 0;
+        long bytes = 0;
+        int largest = 0;
+        for (var payload : payloads) {
+            entries += payload.entries().size();
+            if (payload.encoded() != null) {
+                bytes += payload.encoded().bytes().length;
+                largest = Math.max(largest, payload.encoded().bytes().length);
+            }
+        }
+        PolymerImpl.LOGGER.info("Synced {} to {} in {} frames ({} entries, {} bytes, largest {} bytes)",
+                id.id(), handler.player.getGameProfile().getName(), payloads.size(), entries, bytes, largest);
+    }
+
+    /**
+     * @param hash content hash of encoded entries, used to check if client already has them
+     */
+    public record Frames<A>(List<PolymerGenericListPayload<A>> payloads, long hash) {}
+}
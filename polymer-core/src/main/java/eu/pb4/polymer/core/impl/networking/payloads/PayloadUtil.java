@@ -3,9 +3,7 @@ package eu.pb4.polymer.core.impl.networking.payloads;
 import eu.pb4.polymer.core.impl.PolymerImpl;
 import eu.pb4.polymer.core.impl.ServerMetadataKeys;
 import eu.pb4.polymer.core.impl.client.InternalClientRegistry;
-import eu.pb4.polymer.networking.api.PolymerNetworking;
 import net.minecraft.SharedConstants;
-import net.minecraft.nbt.NbtInt;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.util.Identifier;
 import xyz.nucleoid.packettweaker.PacketContext;
@@ -14,8 +12,8 @@ public interface PayloadUtil {
     int PROTOCOL = SharedConstants.getProtocolVersion();
 
     static boolean matchesProtocol(PacketContext context) {
-        var data = PolymerNetworking.getMetadata(context.getClientConnection(), ServerMetadataKeys.MINECRAFT_PROTOCOL, NbtInt.TYPE);
-        return (data == null || data.intValue() == PROTOCOL) && clientCheck();
+        var data = ServerMetadataKeys.MINECRAFT_PROTOCOL_KEY.get(context.getClientConnection());
+        return (data == null || data == PROTOCOL) && clientCheck();
     }
 
     static boolean clientCheck() {
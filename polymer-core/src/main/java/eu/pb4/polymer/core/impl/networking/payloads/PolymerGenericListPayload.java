@@ -4,18 +4,37 @@ import eu.pb4.polymer.networking.api.ContextByteBuf;
 import net.minecraft.network.codec.PacketCodec;
 import net.minecraft.network.codec.PacketCodecs;
 import net.minecraft.network.packet.CustomPayload;
-import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
-public record PolymerGenericListPayload<T>(Id<PolymerGenericListPayload<T>> id, List<T> entries) implements CustomPayload {
+/**
+ * @param encoded entries already encoded for selected protocol version, written as is instead of entries
+ */
+public record PolymerGenericListPayload<T>(Id<PolymerGenericListPayload<T>> id, List<T> entries, @Nullable Encoded encoded) implements CustomPayload {
+    public PolymerGenericListPayload(Id<PolymerGenericListPayload<T>> id, List<T> entries) {
+        this(id, entries, null);
+    }
+
     public static <T> PacketCodec<ContextByteBuf, PolymerGenericListPayload<T>> codec(Id<PolymerGenericListPayload<T>> id, PacketCodec<ContextByteBuf, T> codec) {
-        return codec.collect(PacketCodecs.toList()).xmap(x -> new PolymerGenericListPayload<>(id, x), PolymerGenericListPayload::entries);
+        var listCodec = listCodec(codec);
+        return PacketCodec.of((payload, buf) -> {
+            if (payload.encoded != null && payload.encoded.version == buf.version()) {
+                buf.writeBytes(payload.encoded.bytes);
+            } else {
+                listCodec.encode(buf, payload.entries);
+            }
+        }, buf -> new PolymerGenericListPayload<>(id, listCodec.decode(buf)));
+    }
+
+    public static <T> PacketCodec<ContextByteBuf, List<T>> listCodec(PacketCodec<ContextByteBuf, T> codec) {
+        return codec.collect(PacketCodecs.toList());
     }
+
     @Override
     public Id<? extends CustomPayload> getId() {
         return id;
     }
+
+    public record Encoded(int version, byte[] bytes) {}
 }
@@ -0,0 +1,28 @@
+package eu.pb4.polymer.core.impl.networking.payloads.s2c;
+
+import eu.pb4.polymer.core.impl.networking.S2CPackets;
+import eu.pb4.polymer.networking.api.ContextByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * @param packetId sync packet the hash applies to
+ * @param hash content hash of entries sent with selected packet
+ * @param reuse if true, entries weren't sent and client should use ones cached under the same hash
+ */
+public record PolymerSyncHashS2CPayload(Identifier packetId, long hash, boolean reuse) implements CustomPayload {
+    public static final CustomPayload.Id<PolymerSyncHashS2CPayload> ID = new CustomPayload.Id<>(S2CPackets.SYNC_HASH);
+    public static final PacketCodec<ContextByteBuf, PolymerSyncHashS2CPayload> CODEC = PacketCodec.tuple(
+            Identifier.PACKET_CODEC, PolymerSyncHashS2CPayload::packetId,
+            PacketCodecs.VAR_LONG, PolymerSyncHashS2CPayload::hash,
+            PacketCodecs.BOOL, PolymerSyncHashS2CPayload::reuse,
+            PolymerSyncHashS2CPayload::new
+    ).cast();
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
@@ -6,10 +6,8 @@ import eu.pb4.polymer.core.api.utils.PolymerUtils;
 import eu.pb4.polymer.core.impl.ClientMetadataKeys;
 import eu.pb4.polymer.core.impl.PolymerImpl;
 import eu.pb4.polymer.core.impl.interfaces.PolymerIdList;
-import eu.pb4.polymer.networking.api.server.PolymerServerNetworking;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
-import net.minecraft.nbt.NbtInt;
 import net.minecraft.util.collection.PackedIntegerArray;
 import net.minecraft.util.collection.PaletteStorage;
 import net.minecraft.world.chunk.IdListPalette;
@@ -34,13 +32,13 @@ public abstract class PalettedContainerDataMixin<T> {
             }
             int bits;
 
-            var playerBitCount = PolymerServerNetworking.getMetadata(player.getClientConnection(), ClientMetadataKeys.BLOCKSTATE_BITS, NbtInt.TYPE);
+            var playerBitCount = ClientMetadataKeys.BLOCKSTATE_BITS_KEY.get(player.getClientConnection());
             if (playerBitCount == null) {
                 bits = PolymerImpl.SYNC_MODDED_ENTRIES_POLYMC
                         ? ((PolymerIdList<?>) Block.STATE_IDS).polymer$getVanillaBitCount()
                         : ((PolymerIdList<?>) Block.STATE_IDS).polymer$getNonPolymerBitCount();
             } else {
-                bits = playerBitCount.intValue();
+                bits = playerBitCount;
             }
             final int size = storage.getSize();
             var data = new PackedIntegerArray(bits, size);
@@ -4,6 +4,7 @@ import eu.pb4.polymer.common.impl.CommonImplUtils;
 import eu.pb4.polymer.core.impl.PolymerImpl;
 import eu.pb4.polymer.core.impl.PolymerImplUtils;
 import eu.pb4.polymer.core.impl.interfaces.PolymerIdList;
+import eu.pb4.polymer.core.impl.networking.PolymerSyncCache;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenCustomHashSet;
 import it.unimi.dsi.fastutil.objects.Reference2IntMap;
@@ -70,6 +71,7 @@ public abstract class IdListMixin<T> implements PolymerIdList<T> {
     @Inject(method = "add", at = @At("HEAD"), cancellable = true)
     private void polymer$moveToEnd(T value, CallbackInfo ci) {
         if (this.polymer$isPolymerAware) {
+            PolymerSyncCache.invalidate();
             if (this.idMap.containsKey(value)) {
                 ci.cancel();
                 return;
@@ -212,6 +214,7 @@ public abstract class IdListMixin<T> implements PolymerIdList<T> {
 
     @Override
     public void polymer$clear() {
+        PolymerSyncCache.invalidate();
         this.nextId = 0;
         this.idMap.clear();
         this.list.clear();
@@ -3,14 +3,13 @@ package eu.pb4.polymer.core.mixin.other;
 import eu.pb4.polymer.core.api.block.BlockMapper;
 import eu.pb4.polymer.core.impl.ClientMetadataKeys;
 import eu.pb4.polymer.core.impl.interfaces.PolymerPlayNetworkHandlerExtension;
-import eu.pb4.polymer.networking.api.PolymerNetworking;
 import eu.pb4.polymer.networking.api.server.PolymerServerNetworking;
-import net.minecraft.nbt.NbtByte;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ConnectedClientData;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
@@ -21,6 +20,8 @@ import xyz.nucleoid.packettweaker.PacketContext;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Mixin(ServerPlayNetworkHandler.class)
 public abstract class ServerPlayNetworkHandlerMixin implements PolymerPlayNetworkHandlerExtension {
@@ -32,6 +33,8 @@ public abstract class ServerPlayNetworkHandlerMixin implements PolymerPlayNetwor
     private BlockMapper polymer$blockMapper;
     @Unique
     private final List<Runnable> polymer$afterSequence = new ArrayList<>();
+    @Unique
+    private final Map<Identifier, Long> polymer$sentSyncHashes = new ConcurrentHashMap<>();
 
     @Shadow
     public abstract ServerPlayerEntity getPlayer();
@@ -41,9 +44,7 @@ public abstract class ServerPlayNetworkHandlerMixin implements PolymerPlayNetwor
     @Inject(method = "<init>", at = @At("TAIL"))
     private void polymer$setupInitial(MinecraftServer server, ClientConnection connection, ServerPlayerEntity player, ConnectedClientData clientData, CallbackInfo ci) {
         this.polymer$blockMapper = BlockMapper.getDefault(PacketContext.create(player));
-        var advTool = PolymerNetworking.getMetadata(connection, ClientMetadataKeys.ADVANCED_TOOLTIP, NbtByte.TYPE);
-
-        this.polymer$advancedTooltip = advTool != null && advTool.intValue() > 0;
+        this.polymer$advancedTooltip = ClientMetadataKeys.ADVANCED_TOOLTIP_KEY.getOrDefault(connection, false);
     }
 
 
@@ -77,6 +78,11 @@ public abstract class ServerPlayNetworkHandlerMixin implements PolymerPlayNetwor
         return this.polymer$advancedTooltip;
     }
 
+    @Override
+    public Map<Identifier, Long> polymer$getSentSyncHashes() {
+        return this.polymer$sentSyncHashes;
+    }
+
     @Override
     public void polymer$delayAfterSequence(Runnable runnable) {
         if (this.sequence == -1) {
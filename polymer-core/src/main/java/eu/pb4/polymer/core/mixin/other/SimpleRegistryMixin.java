@@ -5,6 +5,7 @@ import eu.pb4.polymer.core.api.utils.PolymerObject;
 import eu.pb4.polymer.core.impl.ImplPolymerRegistryEvent;
 import eu.pb4.polymer.core.impl.PolymerImplUtils;
 import eu.pb4.polymer.core.impl.interfaces.RegistryExtension;
+import eu.pb4.polymer.core.impl.networking.PolymerSyncCache;
 import eu.pb4.polymer.rsm.api.RegistrySyncUtils;
 import net.minecraft.recipe.RecipeSerializer;
 import net.minecraft.registry.Registry;
@@ -38,6 +39,7 @@ public abstract class SimpleRegistryMixin<T> implements RegistryExtension<T>, Re
     @Inject(method = "add", at = @At("TAIL"))
     private <V extends T> void polymer$storeStatus(RegistryKey<T> key, T value, RegistryEntryInfo info, CallbackInfoReturnable<RegistryEntry.Reference<T>> cir) {
         this.polymer$objects = null;
+        PolymerSyncCache.invalidate();
         if (PolymerObject.is(value)) {
             RegistrySyncUtils.setServerEntry(this, value);
         }
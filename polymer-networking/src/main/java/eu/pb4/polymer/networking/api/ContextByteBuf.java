@@ -3,7 +3,10 @@ package eu.pb4.polymer.networking.api;
 import com.mojang.authlib.GameProfile;
 import eu.pb4.polymer.networking.api.server.PolymerServerNetworking;
 import eu.pb4.polymer.networking.impl.NetworkHandlerExtension;
+import eu.pb4.polymer.networking.mixin.PacketByteBufAccessor;
+import eu.pb4.polymer.networking.mixin.RegistryByteBufAccessor;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.network.RegistryByteBuf;
 import net.minecraft.network.codec.PacketCodec;
@@ -18,11 +21,47 @@ import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.packettweaker.ContextProvidingPacketListener;
 import xyz.nucleoid.packettweaker.PacketContext;
 
+import java.util.Arrays;
+
 public class ContextByteBuf extends RegistryByteBuf {
-    private final PacketContext context;
-    private final int version;
+    private static final ThreadLocal<Pool> POOL = ThreadLocal.withInitial(Pool::new);
+
+    private PacketContext context;
+    private int version;
 
     public static ContextByteBuf of(PacketContext context, int version, ByteBuf buf) {
+        return new ContextByteBuf(context, version, buf, getRegistryManager(context, buf));
+    }
+
+    /**
+     * Encodes value using wrapper reused by current thread, instead of creating new one.
+     * Codec must not keep the wrapper after returning.
+     */
+    public static <T> void encode(PacketContext context, int version, ByteBuf buf, PacketCodec<? super ContextByteBuf, T> codec, T value) {
+        var pool = POOL.get();
+        var wrapper = pool.acquire(context, version, buf);
+        try {
+            codec.encode(wrapper, value);
+        } finally {
+            pool.release();
+        }
+    }
+
+    /**
+     * Decodes value using wrapper reused by current thread, instead of creating new one.
+     * Codec must not keep the wrapper after returning.
+     */
+    public static <T> T decode(PacketContext context, int version, ByteBuf buf, PacketCodec<? super ContextByteBuf, T> codec) {
+        var pool = POOL.get();
+        var wrapper = pool.acquire(context, version, buf);
+        try {
+            return codec.decode(wrapper);
+        } finally {
+            pool.release();
+        }
+    }
+
+    private static DynamicRegistryManager getRegistryManager(PacketContext context, ByteBuf buf) {
         DynamicRegistryManager registryManager = null;
 
         if (buf instanceof RegistryByteBuf reg) {
@@ -33,8 +72,7 @@ public class ContextByteBuf extends RegistryByteBuf {
         if (registryManager == null) {
             registryManager = DynamicRegistryManager.EMPTY;
         }
-
-        return new ContextByteBuf(context, version, buf, registryManager);
+        return registryManager;
     }
 
     public ContextByteBuf(PacketContext context, int version, ByteBuf buf, DynamicRegistryManager registryManager) {
@@ -43,25 +81,36 @@ public class ContextByteBuf extends RegistryByteBuf {
         this.version = version;
     }
 
+    private void set(PacketContext context, int version, ByteBuf buf, DynamicRegistryManager registryManager) {
+        ((PacketByteBufAccessor) this).polymerNet$setParent(buf);
+        ((RegistryByteBufAccessor) this).polymerNet$setRegistryManager(registryManager);
+        this.context = context;
+        this.version = version;
+    }
+
     public static <T extends CustomPayload> PacketCodec<ByteBuf, T> simple(PacketCodec<ContextByteBuf, T> codec) {
         return PacketCodec.ofStatic(
-                (x, y) -> codec.encode(of(PacketContext.get(), 0, x), y),
-                (x) -> codec.decode(of(PacketContext.get(), 0, x)));
+                (x, y) -> encode(PacketContext.get(), 0, x, codec, y),
+                (x) -> decode(PacketContext.get(), 0, x, codec));
     }
 
     public static <T extends CustomPayload> PacketCodec<ByteBuf, T> versioned(Identifier identifier, PacketCodec<ContextByteBuf, T> codec) {
+        var key = PayloadKey.of(identifier);
         return PacketCodec.ofStatic(
                 (x, y) -> {
                     try {
                         var ctx = PacketContext.get();
-                        var version = PolymerNetworking.getSupportedVersion(ctx.getClientConnection(), identifier);
+                        var version = key.getSupportedVersion(ctx.getClientConnection());
                         VarInts.write(x, version);
-                        codec.encode(of(ctx, version, x), y);
+                        encode(ctx, version, x, codec, y);
                     } catch (Throwable e) {
                         e.printStackTrace();
                     }
                 },
-                (x) -> codec.decode(of(PacketContext.get(), VarInts.read(x), x)));
+                (x) -> {
+                    var version = VarInts.read(x);
+                    return decode(PacketContext.get(), version, x, codec);
+                });
     }
 
     public int version() {
@@ -95,4 +144,34 @@ public class ContextByteBuf extends RegistryByteBuf {
     public Packet<?> encodedPacket() {
         return context.getEncodedPacket();
     }
+
+    /**
+     * Wrappers used by single thread. Nested encoding (for example payloads within batches) uses next wrapper in array.
+     */
+    private static final class Pool {
+        private ContextByteBuf[] wrappers = new ContextByteBuf[4];
+        private int depth = 0;
+
+        private ContextByteBuf acquire(PacketContext context, int version, ByteBuf buf) {
+            if (this.depth == this.wrappers.length) {
+                this.wrappers = Arrays.copyOf(this.wrappers, this.depth * 2);
+            }
+            var registryManager = getRegistryManager(context, buf);
+            var wrapper = this.wrappers[this.depth];
+            if (wrapper == null) {
+                wrapper = new ContextByteBuf(context, version, buf, registryManager);
+                this.wrappers[this.depth] = wrapper;
+            } else {
+                wrapper.set(context, version, buf, registryManager);
+            }
+            this.depth++;
+            return wrapper;
+        }
+
+        private void release() {
+            var wrapper = this.wrappers[--this.depth];
+            // Don't keep references to buffers and players after use
+            wrapper.set(null, 0, Unpooled.EMPTY_BUFFER, DynamicRegistryManager.EMPTY);
+        }
+    }
 }
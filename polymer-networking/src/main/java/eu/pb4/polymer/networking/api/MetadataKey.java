@@ -0,0 +1,92 @@
+package eu.pb4.polymer.networking.api;
+
+import com.mojang.serialization.Codec;
+import eu.pb4.polymer.networking.impl.ExtClientConnection;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.network.ClientConnection;
+import net.minecraft.server.network.ServerCommonNetworkHandler;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Typed metadata entry. Values received from the other side are decoded once, when metadata arrives,
+ * and stored per connection, so reading them doesn't require any lookups or nbt conversions.
+ * Should be stored in static fields.
+ */
+public final class MetadataKey<T> {
+    private static final Map<Identifier, MetadataKey<?>> KEYS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    private final Identifier id;
+    private final Codec<T> codec;
+    private final int index;
+
+    private MetadataKey(Identifier id, Codec<T> codec, int index) {
+        this.id = id;
+        this.codec = codec;
+        this.index = index;
+    }
+
+    /**
+     * Creates key for selected metadata id. There can be only single key for each id, so calling it again returns existing key.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> MetadataKey<T> of(Identifier id, Codec<T> codec) {
+        return (MetadataKey<T>) KEYS.computeIfAbsent(id, x -> new MetadataKey<>(x, codec, NEXT_INDEX.getAndIncrement()));
+    }
+
+    @ApiStatus.Internal
+    @Nullable
+    public static MetadataKey<?> find(Identifier id) {
+        return KEYS.get(id);
+    }
+
+    public Identifier id() {
+        return this.id;
+    }
+
+    public Codec<T> codec() {
+        return this.codec;
+    }
+
+    @ApiStatus.Internal
+    public int index() {
+        return this.index;
+    }
+
+    @Nullable
+    public T get(@Nullable ClientConnection connection) {
+        return connection != null ? ExtClientConnection.of(connection).polymerNet$getMetadata(this) : null;
+    }
+
+    @Nullable
+    public T get(ServerCommonNetworkHandler handler) {
+        return ExtClientConnection.of(handler).polymerNet$getMetadata(this);
+    }
+
+    public T getOrDefault(@Nullable ClientConnection connection, T defaultValue) {
+        var value = this.get(connection);
+        return value != null ? value : defaultValue;
+    }
+
+    @Nullable
+    public T decode(NbtElement element) {
+        return this.codec.parse(NbtOps.INSTANCE, element).result().orElse(null);
+    }
+
+    @Nullable
+    public NbtElement encode(T value) {
+        return this.codec.encodeStart(NbtOps.INSTANCE, value).result().orElse(null);
+    }
+
+    @Override
+    public String toString() {
+        return "MetadataKey[" + this.id + "]";
+    }
+}
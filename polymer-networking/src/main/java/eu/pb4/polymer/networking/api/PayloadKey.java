@@ -0,0 +1,56 @@
+package eu.pb4.polymer.networking.api;
+
+import eu.pb4.polymer.networking.impl.ExtClientConnection;
+import eu.pb4.polymer.networking.impl.PayloadIndex;
+import net.minecraft.network.ClientConnection;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.server.network.ServerCommonNetworkHandler;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Handle of payload type, which can be used to check version supported by connection without identifier lookups.
+ * Should be stored in static fields of code checking versions frequently.
+ */
+public final class PayloadKey<T extends CustomPayload> {
+    private final Identifier id;
+    private final int index;
+
+    @ApiStatus.Internal
+    public PayloadKey(Identifier id, int index) {
+        this.id = id;
+        this.index = index;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends CustomPayload> PayloadKey<T> of(CustomPayload.Id<T> id) {
+        return (PayloadKey<T>) PayloadIndex.get(id.id());
+    }
+
+    public static PayloadKey<?> of(Identifier id) {
+        return PayloadIndex.get(id);
+    }
+
+    public Identifier id() {
+        return this.id;
+    }
+
+    @ApiStatus.Internal
+    public int index() {
+        return this.index;
+    }
+
+    public int getSupportedVersion(@Nullable ClientConnection connection) {
+        return connection != null ? ExtClientConnection.of(connection).polymerNet$getSupportedVersion(this) : -1;
+    }
+
+    public int getSupportedVersion(ServerCommonNetworkHandler handler) {
+        return ExtClientConnection.of(handler).polymerNet$getSupportedVersion(this);
+    }
+
+    @Override
+    public String toString() {
+        return "PayloadKey[" + this.id + "]";
+    }
+}
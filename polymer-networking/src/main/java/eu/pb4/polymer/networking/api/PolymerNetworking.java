@@ -2,6 +2,7 @@ package eu.pb4.polymer.networking.api;
 
 import eu.pb4.polymer.networking.impl.ClientPackets;
 import eu.pb4.polymer.networking.impl.ExtClientConnection;
+import eu.pb4.polymer.networking.impl.PayloadIndex;
 import eu.pb4.polymer.networking.impl.ServerPacketRegistry;
 import eu.pb4.polymer.networking.impl.ServerPackets;
 import io.netty.buffer.ByteBuf;
@@ -27,6 +28,11 @@ public final class PolymerNetworking {
         return null;
     }
 
+    @Nullable
+    public static <T> T getMetadata(ClientConnection handler, MetadataKey<T> key) {
+        return key.get(handler);
+    }
+
     public static <T extends CustomPayload> void registerS2CSimple(Identifier identifier, PacketCodec<ContextByteBuf, T> codec) {
         registerS2CSimple(identifier, 0, codec);
     }
@@ -182,10 +188,16 @@ public final class PolymerNetworking {
         return connection != null ? ExtClientConnection.of(connection).polymerNet$getSupportedVersion(identifier) : -1;
     }
 
+    public static int getSupportedVersion(ClientConnection connection, PayloadKey<?> key) {
+        return key.getSupportedVersion(connection);
+    }
+
     private static <T extends CustomPayload> void registerS2C(Identifier identifier, IntList versions, PacketCodec<ByteBuf, T> codec) {
+        PayloadIndex.get(identifier);
         ServerPackets.register(identifier, codec, versions.toIntArray());
     }
     private static <T extends CustomPayload> void registerC2S(Identifier identifier, IntList versions, PacketCodec<ByteBuf, T> codec) {
+        PayloadIndex.get(identifier);
         ClientPackets.register(identifier, codec, versions.toIntArray());
     }
     public static <T extends CustomPayload> CustomPayload.Id<T> id(String id) {
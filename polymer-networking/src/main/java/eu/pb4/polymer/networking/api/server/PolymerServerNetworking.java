@@ -2,6 +2,8 @@ package eu.pb4.polymer.networking.api.server;
 
 
 import eu.pb4.polymer.common.api.events.SimpleEvent;
+import eu.pb4.polymer.networking.api.MetadataKey;
+import eu.pb4.polymer.networking.api.PayloadKey;
 import eu.pb4.polymer.networking.impl.*;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtType;
@@ -47,30 +49,56 @@ public final class PolymerServerNetworking {
         return null;
     }
 
+    @Nullable
+    public static <T> T getMetadata(ClientConnection handler, MetadataKey<T> key) {
+        return key.get(handler);
+    }
+
+    @Nullable
+    public static <T> T getMetadata(ServerCommonNetworkHandler handler, MetadataKey<T> key) {
+        return key.get(handler);
+    }
+
+    /**
+     * Allows payload to be sent together with other small payloads as a single packet, to clients supporting it.
+     * Should only be used for small payloads that are sent often, as batch size isn't known before encoding.
+     * Batched payloads can be delayed until next connection tick, even if sent packet requested flushing.
+     */
+    public static void allowBatching(Identifier identifier) {
+        ServerPackets.BATCHABLE.add(identifier);
+    }
+
+    public static void allowBatching(CustomPayload.Id<?> id) {
+        allowBatching(id.id());
+    }
+
     public static void setServerMetadata(Identifier identifier, @Nullable NbtElement nbtElement) {
-        if (nbtElement == null) {
-            ServerPacketRegistry.METADATA.remove(identifier);
-        } else {
-            ServerPacketRegistry.METADATA.put(identifier, nbtElement);
-        }
+        ServerPacketRegistry.setMetadata(identifier, nbtElement);
     }
 
     public static <T extends CustomPayload> void registerCommonHandler(Class<T> payloadClass, PolymerServerPacketHandler<ServerCommonNetworkHandler, T> handler) {
         ServerPacketRegistry.COMMON_PACKET_LISTENERS.computeIfAbsent(payloadClass, (x) -> new ArrayList<>()).add(handler);
+        ServerPacketRegistry.invalidateDispatch();
     }
 
     public static <T extends CustomPayload> void registerPlayHandler(Class<T> payloadClass, PolymerServerPacketHandler<ServerPlayNetworkHandler, T> handler) {
         ServerPacketRegistry.PLAY_PACKET_LISTENERS.computeIfAbsent(payloadClass, (x) -> new ArrayList<>()).add(handler);
+        ServerPacketRegistry.invalidateDispatch();
     }
 
     public static <T extends CustomPayload> void registerConfigurationHandler(Class<T> payloadClass, PolymerServerPacketHandler<ServerConfigurationNetworkHandler, T> handler) {
         ServerPacketRegistry.CONFIG_PACKET_LISTENERS.computeIfAbsent(payloadClass, (x) -> new ArrayList<>()).add(handler);
+        ServerPacketRegistry.invalidateDispatch();
     }
 
     public static int getSupportedVersion(ServerPlayNetworkHandler handler, Identifier serverPacket) {
         return ExtClientConnection.of(handler).polymerNet$getSupportedVersion(serverPacket);
     }
 
+    public static int getSupportedVersion(ServerPlayNetworkHandler handler, PayloadKey<?> serverPacket) {
+        return serverPacket.getSupportedVersion(handler);
+    }
+
     public static long getLastPacketReceivedTime(ServerPlayNetworkHandler handler, Identifier identifier) {
         return ((NetworkHandlerExtension) handler).polymerNet$lastPacketUpdate(identifier);
     }
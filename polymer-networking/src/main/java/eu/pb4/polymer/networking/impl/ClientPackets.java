@@ -38,5 +38,6 @@ public class ClientPackets {
         VERSION_REGISTRY.put(id, ver);
         PAYLOAD_CODEC.put(id, codec);
         LATEST.put(id, getBestSupported(id, ver));
+        ServerPacketRegistry.invalidateHandshake();
     }
 }
@@ -0,0 +1,92 @@
+package eu.pb4.polymer.networking.impl;
+
+import net.minecraft.network.ClientConnection;
+import net.minecraft.network.PacketCallbacks;
+import net.minecraft.network.packet.Packet;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends packets built on other threads once they are ready. Packets sent to connection in the meantime are held back
+ * and sent after them, so order stays the same as if they were sent directly.
+ */
+@ApiStatus.Internal
+public final class DeferredPacketQueue {
+    private final ClientConnection connection;
+    private final ArrayDeque<Object> queue = new ArrayDeque<>();
+    @Nullable
+    private Thread drainingThread;
+    /**
+     * Set while anything is queued or being sent, so connections without pending packets don't need to lock.
+     */
+    private volatile boolean active;
+
+    public DeferredPacketQueue(ClientConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Holds packet back if there are any pending packets before it.
+     */
+    public boolean offer(Packet<?> packet, @Nullable PacketCallbacks callbacks, boolean flush) {
+        if (!this.active) {
+            return false;
+        }
+        synchronized (this) {
+            if (this.drainingThread == Thread.currentThread() || (this.drainingThread == null && this.queue.isEmpty())) {
+                return false;
+            }
+            this.queue.add(new Held(packet, callbacks, flush));
+            return true;
+        }
+    }
+
+    public void add(CompletableFuture<? extends List<? extends Packet<?>>> packets) {
+        synchronized (this) {
+            this.queue.add(packets);
+            this.active = true;
+        }
+        packets.whenComplete((x, e) -> this.drain());
+    }
+
+    private void drain() {
+        synchronized (this) {
+            if (this.drainingThread != null) {
+                return;
+            }
+            this.drainingThread = Thread.currentThread();
+        }
+
+        while (true) {
+            Object next;
+            synchronized (this) {
+                var head = this.queue.peekFirst();
+                if (head == null || (head instanceof CompletableFuture<?> future && !future.isDone())) {
+                    this.drainingThread = null;
+                    this.active = head != null;
+                    return;
+                }
+                next = this.queue.pollFirst();
+            }
+
+            try {
+                if (next instanceof Held held) {
+                    this.connection.send(held.packet, held.callbacks, held.flush);
+                } else if (next instanceof CompletableFuture<?> future && !future.isCompletedExceptionally()) {
+                    var packets = (List<?>) future.join();
+                    for (int i = 0; i < packets.size(); i++) {
+                        this.connection.send((Packet<?>) packets.get(i), null, i == packets.size() - 1);
+                    }
+                }
+            } catch (Throwable e) {
+                NetImpl.LOGGER.error("Failed to send deferred packets!", e);
+            }
+        }
+    }
+
+    private record Held(Packet<?> packet, @Nullable PacketCallbacks callbacks, boolean flush) {}
+}
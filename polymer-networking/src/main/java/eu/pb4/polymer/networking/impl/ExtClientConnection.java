@@ -1,5 +1,7 @@
 package eu.pb4.polymer.networking.impl;
 
+import eu.pb4.polymer.networking.api.MetadataKey;
+import eu.pb4.polymer.networking.api.PayloadKey;
 import io.netty.channel.Channel;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
@@ -10,7 +12,10 @@ import net.minecraft.network.packet.c2s.common.CustomPayloadC2SPacket;
 import net.minecraft.server.network.ServerCommonNetworkHandler;
 import net.minecraft.util.Identifier;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 @ApiStatus.Internal
@@ -25,11 +30,19 @@ public interface ExtClientConnection {
     void polymerNet$setVersion(String version);
 
     int polymerNet$getSupportedVersion(Identifier identifier);
+    int polymerNet$getSupportedVersion(PayloadKey<?> key);
     void polymerNet$setSupportedVersion(Identifier identifier, int i);
+    void polymerNet$setSupportedVersions(Object2IntMap<Identifier> versions);
+    void polymerNet$clearSupportedVersions();
     Object2IntMap<Identifier> polymerNet$getSupportMap();
     Object2ObjectMap<Identifier, NbtElement> polymerNet$getMetadataMap();
+    void polymerNet$setMetadata(Identifier identifier, @Nullable NbtElement value);
+    void polymerNet$clearMetadata();
+    @Nullable
+    <T> T polymerNet$getMetadata(MetadataKey<T> key);
 
     void polymerNet$wrongPacketConsumer(Consumer<Packet<?>> consumer);
+    void polymerNet$sendLater(CompletableFuture<? extends List<? extends Packet<?>>> packets);
     Channel polymerNet$getChannel();
 
     static ExtClientConnection of(ClientConnection connection) {
@@ -3,4 +3,6 @@ package eu.pb4.polymer.networking.impl;
 public class NetConfig {
     public String _c1 = "Sends GameJoin packet, only enable if sync does work (most likely for servers under proxy)";
     public boolean sendGameJoinBeforeSync = false;
+    public String _c2 = "Combines small polymer payloads into single packets, for clients supporting it";
+    public boolean batchPayloads = true;
 }
@@ -9,6 +9,7 @@ import org.slf4j.Logger;
 @ApiStatus.Internal
 public class NetImpl {
     public static final boolean SEND_GAME_JOIN_PACKET;
+    public static final boolean BATCH_PAYLOADS;
     public static final Logger LOGGER = CommonImpl.LOGGER;
     public static final boolean IS_DISABLED = false;
 
@@ -16,5 +17,6 @@ public class NetImpl {
         var config = CommonImpl.loadConfig("networking", NetConfig.class);
 
         SEND_GAME_JOIN_PACKET = config.sendGameJoinBeforeSync;
+        BATCH_PAYLOADS = config.batchPayloads;
     }
 }
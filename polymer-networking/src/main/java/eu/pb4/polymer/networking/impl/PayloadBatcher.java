@@ -0,0 +1,70 @@
+package eu.pb4.polymer.networking.impl;
+
+import eu.pb4.polymer.networking.impl.packets.BatchS2CPayload;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.network.ClientConnection;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.network.packet.s2c.common.CustomPayloadS2CPacket;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects batchable payloads sent to single connection and sends them together as {@link BatchS2CPayload}.
+ * Pending payloads are sent before any other packet and at the start of every connection tick, so packet order doesn't change.
+ * Flush requested by sender of batched payload is ignored, which delays it by up to a single tick. As batches are limited
+ * by payload count only, payloads of unbounded size (like chunk section updates) shouldn't be batched.
+ */
+@ApiStatus.Internal
+public final class PayloadBatcher {
+    private static final int MAX_BATCH_SIZE = 64;
+
+    private final ClientConnection connection;
+    /**
+     * Short ids indexed by {@link PayloadIndex}, stored increased by one, so unset entries aren't batched.
+     */
+    private final int[] shortIds;
+    private final IntArrayList pendingIds = new IntArrayList();
+    private final List<CustomPayload> pending = new ObjectArrayList<>();
+
+    public PayloadBatcher(ClientConnection connection, List<Identifier> ids) {
+        this.connection = connection;
+        var table = new int[0];
+        for (int i = 0; i < ids.size(); i++) {
+            var index = PayloadIndex.get(ids.get(i)).index();
+            if (index >= table.length) {
+                table = Arrays.copyOf(table, index + 1);
+            }
+            table[index] = i + 1;
+        }
+        this.shortIds = table;
+    }
+
+    public synchronized boolean add(CustomPayload payload) {
+        var key = PayloadIndex.find(payload.getId().id());
+        var shortId = key != null && key.index() < this.shortIds.length ? this.shortIds[key.index()] - 1 : -1;
+        if (shortId == -1) {
+            return false;
+        }
+
+        this.pendingIds.add(shortId);
+        this.pending.add(payload);
+        if (this.pending.size() >= MAX_BATCH_SIZE) {
+            this.flush(false);
+        }
+        return true;
+    }
+
+    public synchronized void flush(boolean flushChannel) {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+        var payload = new BatchS2CPayload(this.pendingIds.toIntArray(), List.copyOf(this.pending));
+        this.pendingIds.clear();
+        this.pending.clear();
+        this.connection.send(new CustomPayloadS2CPacket(payload), null, flushChannel);
+    }
+}
@@ -0,0 +1,38 @@
+package eu.pb4.polymer.networking.impl;
+
+import eu.pb4.polymer.networking.api.PayloadKey;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns dense indexes to payload identifiers, used for per connection version tables.
+ */
+@ApiStatus.Internal
+public final class PayloadIndex {
+    private static final Map<Identifier, PayloadKey<?>> KEYS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    private PayloadIndex() {}
+
+    public static PayloadKey<?> get(Identifier id) {
+        var key = KEYS.get(id);
+        return key != null ? key : KEYS.computeIfAbsent(id, x -> new PayloadKey<>(x, NEXT_INDEX.getAndIncrement()));
+    }
+
+    @Nullable
+    public static PayloadKey<?> find(Identifier id) {
+        return KEYS.get(id);
+    }
+
+    /**
+     * Amount of indexes assigned so far. Keys created later get index equal or higher than it.
+     */
+    public static int size() {
+        return NEXT_INDEX.get();
+    }
+}
@@ -47,14 +47,12 @@ public final class PolymerHandshakeHandlerImplLogin extends EarlyConfigurationNe
 
     public void set(String polymerVersion, Object2IntMap<Identifier> protocolVersions) {
         this.extClientConnection.polymerNet$setVersion(polymerVersion);
-        for (var entry : protocolVersions.object2IntEntrySet()) {
-            this.extClientConnection.polymerNet$setSupportedVersion(entry.getKey(), entry.getIntValue());
-        }
+        this.extClientConnection.polymerNet$setSupportedVersions(protocolVersions);
     }
 
     @Override
     public void setMetadataValue(Identifier identifier, NbtElement value) {
-        this.extClientConnection.polymerNet$getMetadataMap().put(identifier, value);
+        this.extClientConnection.polymerNet$setMetadata(identifier, value);
     }
 
     public boolean isPolymer() {
@@ -100,7 +98,7 @@ public final class PolymerHandshakeHandlerImplLogin extends EarlyConfigurationNe
 
     @Override
     public void reset() {
-        this.extClientConnection.polymerNet$getSupportMap().clear();
+        this.extClientConnection.polymerNet$clearSupportedVersions();
     }
 
     @Override
@@ -5,10 +5,13 @@ import eu.pb4.polymer.networking.api.PolymerNetworking;
 import eu.pb4.polymer.networking.api.server.PolymerHandshakeHandler;
 import eu.pb4.polymer.networking.api.server.PolymerServerNetworking;
 import eu.pb4.polymer.networking.api.server.PolymerServerPacketHandler;
+import eu.pb4.polymer.networking.impl.packets.BatchIdsS2CPayload;
+import eu.pb4.polymer.networking.impl.packets.BatchS2CPayload;
 import eu.pb4.polymer.networking.impl.packets.DisableS2CPayload;
 import eu.pb4.polymer.networking.impl.packets.HandshakePayload;
 import eu.pb4.polymer.networking.impl.packets.HelloS2CPayload;
 import eu.pb4.polymer.networking.impl.packets.MetadataPayload;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.nbt.NbtElement;
 
@@ -21,22 +24,35 @@ import net.minecraft.server.network.ServerConfigurationNetworkHandler;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
 import net.minecraft.util.Identifier;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
 @ApiStatus.Internal
 public class ServerPacketRegistry {
+    @SuppressWarnings("rawtypes")
+    private static final PolymerServerPacketHandler[] EMPTY = new PolymerServerPacketHandler[0];
     public static final HashMap<Class<?>, List<PolymerServerPacketHandler<ServerCommonNetworkHandler, ?>>> COMMON_PACKET_LISTENERS = new HashMap<>();
     public static final HashMap<Class<?>, List<PolymerServerPacketHandler<ServerPlayNetworkHandler, ?>>> PLAY_PACKET_LISTENERS = new HashMap<>();
     public static final HashMap<Class<?>, List<PolymerServerPacketHandler<ServerConfigurationNetworkHandler, ?>>> CONFIG_PACKET_LISTENERS = new HashMap<>();
 
     public static final HashMap<Identifier, NbtElement> METADATA = new HashMap<>();
+    private static final Object HANDSHAKE_LOCK = new Object();
+    @Nullable
+    private static volatile HandshakePayload handshakePayload;
+    @Nullable
+    private static volatile MetadataPayload metadataPayload;
+    private static volatile ClassValue<Handlers> dispatch = createDispatch();
+
     public static void register() {
         PolymerNetworking.registerCommonVersioned(HandshakePayload.ID, 2, HandshakePayload.CODEC);
         PolymerNetworking.registerCommonVersioned(MetadataPayload.ID, 2, MetadataPayload.CODEC);
         PolymerNetworking.registerS2CVersioned(DisableS2CPayload.ID, 2, PacketCodec.unit(new DisableS2CPayload()));
         PolymerNetworking.registerS2CVersioned(HelloS2CPayload.ID, 2, PacketCodec.unit(new HelloS2CPayload()));
+        PolymerNetworking.registerS2CVersioned(BatchIdsS2CPayload.ID, 0, BatchIdsS2CPayload.CODEC);
+        PolymerNetworking.registerS2CVersioned(BatchS2CPayload.ID, 0, BatchS2CPayload.CODEC);
 
         PolymerServerNetworking.registerCommonHandler(HandshakePayload.class,
                 (server, handler, packet) -> handleHandshake(PolymerHandshakeHandler.of(server, handler), packet));
@@ -44,62 +60,145 @@ public class ServerPacketRegistry {
                 (server, handler, packet) -> handleMetadata(PolymerHandshakeHandler.of(server, handler), packet));
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public static boolean handle(MinecraftServer server, ServerCommonNetworkHandler handler, CustomPayload packet) {
-        var packetHandlers = COMMON_PACKET_LISTENERS.get(packet.getClass());
-        boolean handled = false;
-        if (packetHandlers != null) {
-            for (var pHandler : packetHandlers) {
-                ((PolymerServerPacketHandler) pHandler).onPacket(server, handler, packet);
-            }
-            handled = !packetHandlers.isEmpty();
+        var handlers = dispatch.get(packet.getClass());
+
+        var common = handlers.common;
+        for (int i = 0; i < common.length; i++) {
+            common[i].onPacket(server, handler, packet);
         }
+        boolean handled = common.length != 0;
 
         if (handler instanceof ServerPlayNetworkHandler playNetworkHandler) {
-            var packetHandlers2 = PLAY_PACKET_LISTENERS.get(packet.getClass());
-            if (packetHandlers2 != null) {
-                for (var pHandler : packetHandlers2) {
-                    ((PolymerServerPacketHandler) pHandler).onPacket(server, playNetworkHandler, packet);
-                }
-                handled = handled || !packetHandlers2.isEmpty();
+            var play = handlers.play;
+            for (int i = 0; i < play.length; i++) {
+                play[i].onPacket(server, playNetworkHandler, packet);
             }
+            handled = handled || play.length != 0;
         } else if (handler instanceof ServerConfigurationNetworkHandler networkHandler) {
-            var packetHandlers2 = CONFIG_PACKET_LISTENERS.get(packet.getClass());
-            if (packetHandlers2 != null) {
-                for (var pHandler : packetHandlers2) {
-                    ((PolymerServerPacketHandler) pHandler).onPacket(server, networkHandler, packet);
-                }
-                handled = handled || !packetHandlers2.isEmpty();
+            var config = handlers.config;
+            for (int i = 0; i < config.length; i++) {
+                config[i].onPacket(server, networkHandler, packet);
             }
+            handled = handled || config.length != 0;
         }
 
         return handled;
     }
+
+    /**
+     * Needs to be called after modifying listener maps, so handlers get collected again for each payload class.
+     */
+    public static void invalidateDispatch() {
+        dispatch = createDispatch();
+    }
+
+    private static ClassValue<Handlers> createDispatch() {
+        return new ClassValue<>() {
+            @Override
+            protected Handlers computeValue(Class<?> type) {
+                return new Handlers(toArray(COMMON_PACKET_LISTENERS.get(type)), toArray(PLAY_PACKET_LISTENERS.get(type)), toArray(CONFIG_PACKET_LISTENERS.get(type)));
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <H extends ServerCommonNetworkHandler> PolymerServerPacketHandler<H, CustomPayload>[] toArray(@Nullable List<? extends PolymerServerPacketHandler<H, ?>> list) {
+        return list != null ? list.toArray(PolymerServerPacketHandler[]::new) : EMPTY;
+    }
+
     public static void sendHandshake(PolymerHandshakeHandler handler) {
-        handler.sendPacket(new CustomPayloadS2CPacket(new HandshakePayload(CommonImpl.VERSION, ClientPackets.VERSION_REGISTRY)));
+        var payload = handshakePayload;
+        if (payload == null) {
+            // Published under lock, so invalidation during encoding isn't overwritten by outdated payload
+            synchronized (HANDSHAKE_LOCK) {
+                payload = handshakePayload;
+                if (payload == null) {
+                    payload = HandshakePayload.preEncoded(CommonImpl.VERSION, ClientPackets.VERSION_REGISTRY);
+                    handshakePayload = payload;
+                }
+            }
+        }
+        handler.sendPacket(new CustomPayloadS2CPacket(payload));
     }
 
     private static void sendMetadata(PolymerHandshakeHandler handler) {
-        handler.sendPacket(new CustomPayloadS2CPacket(new MetadataPayload(METADATA)));
+        var payload = metadataPayload;
+        if (payload == null) {
+            synchronized (METADATA) {
+                payload = metadataPayload;
+                if (payload == null) {
+                    payload = MetadataPayload.preEncoded(METADATA);
+                    metadataPayload = payload;
+                }
+            }
+        }
+        handler.sendPacket(new CustomPayloadS2CPacket(payload));
+    }
+
+    public static void setMetadata(Identifier identifier, @Nullable NbtElement nbtElement) {
+        synchronized (METADATA) {
+            if (nbtElement == null) {
+                METADATA.remove(identifier);
+            } else {
+                METADATA.put(identifier, nbtElement);
+            }
+            metadataPayload = null;
+        }
+    }
+
+    /**
+     * Needs to be called after registering client packets, so they are included in handshake.
+     */
+    public static void invalidateHandshake() {
+        synchronized (HANDSHAKE_LOCK) {
+            handshakePayload = null;
+        }
+    }
+
+    /**
+     * Batching gets enabled for connection once this payload is sent, see {@link PayloadBatcher}.
+     */
+    private static void sendBatchIds(PolymerHandshakeHandler handler, Object2IntMap<Identifier> versionMap) {
+        if (!NetImpl.BATCH_PAYLOADS || versionMap.getOrDefault(BatchS2CPayload.ID.id(), -1) == -1) {
+            return;
+        }
+        var ids = new ArrayList<Identifier>();
+        for (var id : ServerPackets.BATCHABLE) {
+            if (versionMap.getOrDefault(id, -1) != -1) {
+                ids.add(id);
+            }
+        }
+        if (!ids.isEmpty()) {
+            handler.sendPacket(new CustomPayloadS2CPacket(new BatchIdsS2CPayload(ids)));
+        }
     }
 
     public static void handleHandshake(PolymerHandshakeHandler handler, HandshakePayload payload) {
         var versionMap = new Object2IntOpenHashMap<Identifier>();
 
         payload.packetVersions().forEach((id, versions) -> {
-            versionMap.put(id, ServerPackets.getBestSupported(id, versions));
+            var version = ServerPackets.getBestSupported(id, versions);
+            if (version != -1) {
+                versionMap.put(id, version);
+            }
         });
 
-        handler.getServer().execute(() -> {
-            handler.set(handler.getPolymerVersion(), versionMap);
-            handler.setLastPacketTime(HandshakePayload.ID.id());
+        // Versions are published to connection at once and packets can be sent from any thread,
+        // so there is no need to wait for server thread here
+        handler.set(handler.getPolymerVersion(), versionMap);
+        handler.setLastPacketTime(HandshakePayload.ID.id());
 
-            sendHandshake(handler);
-            sendMetadata(handler);
-        });
+        sendHandshake(handler);
+        sendMetadata(handler);
+        sendBatchIds(handler, versionMap);
     }
 
     public static void handleMetadata(PolymerHandshakeHandler handler, MetadataPayload payload) {
         payload.map().forEach(handler::setMetadataValue);
     }
+
+    private record Handlers(PolymerServerPacketHandler<ServerCommonNetworkHandler, CustomPayload>[] common,
+                            PolymerServerPacketHandler<ServerPlayNetworkHandler, CustomPayload>[] play,
+                            PolymerServerPacketHandler<ServerConfigurationNetworkHandler, CustomPayload>[] config) {}
 }
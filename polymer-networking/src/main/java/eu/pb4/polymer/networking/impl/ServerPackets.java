@@ -4,6 +4,7 @@ package eu.pb4.polymer.networking.impl;
 import io.netty.buffer.ByteBuf;
 import it.unimi.dsi.fastutil.ints.IntArraySet;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
 import net.minecraft.network.codec.PacketCodec;
 import net.minecraft.network.packet.CustomPayload;
 import net.minecraft.network.packet.s2c.common.CustomPayloadS2CPacket;
@@ -12,6 +13,7 @@ import org.jetbrains.annotations.ApiStatus;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.IntStream;
 
 @ApiStatus.Internal
@@ -19,6 +21,7 @@ public class ServerPackets {
     public static final HashMap<Identifier, PacketCodec<ByteBuf, ?>> PAYLOAD_CODEC = new HashMap<>();
     public static final Map<Identifier, int[]> VERSION_REGISTRY = new HashMap<>();
     public static final Object2IntOpenHashMap<Identifier> LATEST = new Object2IntOpenHashMap<>();
+    public static final Set<Identifier> BATCHABLE = new ObjectLinkedOpenHashSet<>();
 
     public static int getBestSupported(Identifier identifier, int[] ver) {
 
@@ -5,6 +5,8 @@ import eu.pb4.polymer.common.impl.CommonNetworkHandlerExt;
 import eu.pb4.polymer.networking.api.client.PolymerClientNetworking;
 import eu.pb4.polymer.networking.api.client.PolymerClientPacketHandler;
 import eu.pb4.polymer.networking.impl.*;
+import eu.pb4.polymer.networking.impl.packets.BatchIdsS2CPayload;
+import eu.pb4.polymer.networking.impl.packets.BatchS2CPayload;
 import eu.pb4.polymer.networking.impl.packets.DisableS2CPayload;
 import eu.pb4.polymer.networking.impl.packets.HandshakePayload;
 import eu.pb4.polymer.networking.impl.packets.HelloS2CPayload;
@@ -41,6 +43,14 @@ public class ClientPacketRegistry {
         PolymerClientNetworking.registerCommonHandler(MetadataPayload.class, ClientPacketRegistry::handleMetadata);
         PolymerClientNetworking.registerCommonHandler(DisableS2CPayload.class, ClientPacketRegistry::handleDisable);
         PolymerClientNetworking.registerCommonHandler(HelloS2CPayload.class, ClientPacketRegistry::handleHello);
+        PolymerClientNetworking.registerCommonHandler(BatchIdsS2CPayload.class, (client, handler, payload) -> BatchS2CPayload.setReceivedIds(payload.ids()));
+        PolymerClientNetworking.registerCommonHandler(BatchS2CPayload.class, ClientPacketRegistry::handleBatch);
+    }
+
+    private static void handleBatch(MinecraftClient client, ClientCommonNetworkHandler handler, BatchS2CPayload payload) {
+        for (var entry : payload.payloads()) {
+            handle(client, handler, entry);
+        }
     }
 
     private static void handleHello(MinecraftClient client, ClientCommonNetworkHandler handler, HelloS2CPayload payload) {
@@ -82,13 +92,14 @@ public class ClientPacketRegistry {
     public static void clear(@Nullable ClientCommonNetworkHandler handler) {
         lastVersion = "";
         CLIENT_PROTOCOL.clear();
+        BatchS2CPayload.setReceivedIds(List.of());
         synchronized (SERVER_METADATA) {
             SERVER_METADATA.clear();
         }
         if (handler != null) {
             var ext = (ExtClientConnection) ((CommonNetworkHandlerExt) handler).polymerCommon$getConnection();
-            ext.polymerNet$getMetadataMap().clear();
-            ext.polymerNet$getSupportMap().clear();
+            ext.polymerNet$clearMetadata();
+            ext.polymerNet$clearSupportedVersions();
             ext.polymerNet$setVersion("");
         }
 
@@ -102,8 +113,8 @@ public class ClientPacketRegistry {
         }
 
         var ext = (ExtClientConnection) ((CommonNetworkHandlerExt) handler).polymerCommon$getConnection();
-        ext.polymerNet$getMetadataMap().clear();
-        ext.polymerNet$getMetadataMap().putAll(payload.map());
+        ext.polymerNet$clearMetadata();
+        payload.map().forEach(ext::polymerNet$setMetadata);
 
         PolymerClientNetworking.AFTER_METADATA_RECEIVED.invoke(Runnable::run);
     }
@@ -114,10 +125,15 @@ public class ClientPacketRegistry {
 
         lastVersion = payload.version();
 
-        payload.packetVersions().forEach((id, ver) -> CLIENT_PROTOCOL.put(id, ClientPackets.getBestSupported(id, ver)));
+        payload.packetVersions().forEach((id, ver) -> {
+            var version = ClientPackets.getBestSupported(id, ver);
+            if (version != -1) {
+                CLIENT_PROTOCOL.put(id, version);
+            }
+        });
 
         var ext = (ExtClientConnection) ((CommonNetworkHandlerExt) handler).polymerCommon$getConnection();
-        ext.polymerNet$getSupportMap().putAll(CLIENT_PROTOCOL);
+        ext.polymerNet$setSupportedVersions(CLIENT_PROTOCOL);
         ext.polymerNet$setVersion(lastVersion);
 
         PolymerClientNetworking.AFTER_HANDSHAKE_RECEIVED.invoke(Runnable::run);
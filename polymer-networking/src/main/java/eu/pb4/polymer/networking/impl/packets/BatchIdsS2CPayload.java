@@ -0,0 +1,31 @@
+package eu.pb4.polymer.networking.impl.packets;
+
+import eu.pb4.polymer.networking.api.ContextByteBuf;
+import eu.pb4.polymer.networking.api.PolymerNetworking;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+import java.util.List;
+
+/**
+ * Assigns short numeric ids (position in list) to payloads, which will be sent within {@link BatchS2CPayload}.
+ */
+public record BatchIdsS2CPayload(List<Identifier> ids) implements CustomPayload {
+    public static final Id<BatchIdsS2CPayload> ID = PolymerNetworking.id("polymer", "batch/ids");
+    public static final PacketCodec<ContextByteBuf, BatchIdsS2CPayload> CODEC = PacketCodec.of(BatchIdsS2CPayload::write, BatchIdsS2CPayload::read);
+
+    public void write(ContextByteBuf buf) {
+        buf.writeCollection(this.ids, PacketByteBuf::writeIdentifier);
+    }
+
+    public static BatchIdsS2CPayload read(ContextByteBuf buf) {
+        return new BatchIdsS2CPayload(buf.readList(PacketByteBuf::readIdentifier));
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
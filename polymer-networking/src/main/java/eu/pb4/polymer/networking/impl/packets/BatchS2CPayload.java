@@ -0,0 +1,81 @@
+package eu.pb4.polymer.networking.impl.packets;
+
+import eu.pb4.polymer.networking.api.ContextByteBuf;
+import eu.pb4.polymer.networking.api.PolymerNetworking;
+import eu.pb4.polymer.networking.impl.NetImpl;
+import eu.pb4.polymer.networking.impl.ServerPackets;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multiple payloads sent as single packet. Each entry is prefixed with short id assigned by {@link BatchIdsS2CPayload}
+ * and its length, so entries that fail to decode can be skipped.
+ */
+public record BatchS2CPayload(int[] ids, List<CustomPayload> payloads) implements CustomPayload {
+    public static final Id<BatchS2CPayload> ID = PolymerNetworking.id("polymer", "batch");
+    public static final PacketCodec<ContextByteBuf, BatchS2CPayload> CODEC = PacketCodec.of(BatchS2CPayload::write, BatchS2CPayload::read);
+
+    /**
+     * Ids received from server, used for decoding on client.
+     */
+    private static volatile Identifier[] receivedIds = new Identifier[0];
+
+    public static void setReceivedIds(List<Identifier> ids) {
+        receivedIds = ids.toArray(Identifier[]::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void write(ContextByteBuf buf) {
+        buf.writeVarInt(this.payloads.size());
+        var entry = wrap(buf, buf.alloc().buffer());
+        try {
+            for (int i = 0; i < this.payloads.size(); i++) {
+                var payload = this.payloads.get(i);
+                var codec = (PacketCodec<ByteBuf, CustomPayload>) ServerPackets.PAYLOAD_CODEC.get(payload.getId().id());
+                entry.clear();
+                codec.encode(entry, payload);
+                buf.writeVarInt(this.ids[i]);
+                buf.writeVarInt(entry.readableBytes());
+                buf.writeBytes(entry);
+            }
+        } finally {
+            entry.release();
+        }
+    }
+
+    public static BatchS2CPayload read(ContextByteBuf buf) {
+        var ids = receivedIds;
+        var count = buf.readVarInt();
+        var payloads = new ArrayList<CustomPayload>(count);
+        for (int i = 0; i < count; i++) {
+            var shortId = buf.readVarInt();
+            var entry = wrap(buf, buf.readSlice(buf.readVarInt()));
+            var id = shortId >= 0 && shortId < ids.length ? ids[shortId] : null;
+            var codec = id != null ? ServerPackets.PAYLOAD_CODEC.get(id) : null;
+            if (codec == null) {
+                continue;
+            }
+            try {
+                payloads.add((CustomPayload) codec.decode(entry));
+            } catch (Throwable e) {
+                NetImpl.LOGGER.warn("Failed to decode batched payload '{}'!", id, e);
+            }
+        }
+        return new BatchS2CPayload(new int[0], payloads);
+    }
+
+    private static ByteBuf wrap(ByteBuf parent, ByteBuf buf) {
+        return parent instanceof RegistryByteBuf registryByteBuf ? new RegistryByteBuf(buf, registryByteBuf.getRegistryManager()) : buf;
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
@@ -2,19 +2,46 @@ package eu.pb4.polymer.networking.impl.packets;
 
 import eu.pb4.polymer.networking.api.ContextByteBuf;
 import eu.pb4.polymer.networking.api.PolymerNetworking;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.network.codec.PacketCodec;
 import net.minecraft.network.packet.CustomPayload;
 import net.minecraft.util.Identifier;
-import xyz.nucleoid.packettweaker.PacketContext;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 
-public record HandshakePayload(String version, Map<Identifier, int[]> packetVersions) implements CustomPayload {
+/**
+ * @param encoded payload already encoded, written as is instead of other fields
+ */
+public record HandshakePayload(String version, Map<Identifier, int[]> packetVersions, @Nullable byte[] encoded) implements CustomPayload {
     public static final Id<HandshakePayload> ID = PolymerNetworking.id("polymer", "handshake");
     public static PacketCodec<ContextByteBuf, HandshakePayload> CODEC = PacketCodec.of(HandshakePayload::write, HandshakePayload::read);
 
-    public void write(ContextByteBuf buf) {
+    public HandshakePayload(String version, Map<Identifier, int[]> packetVersions) {
+        this(version, packetVersions, null);
+    }
+
+    /**
+     * Creates payload encoded once, so it can be sent to any number of players without encoding it again.
+     */
+    public static HandshakePayload preEncoded(String version, Map<Identifier, int[]> packetVersions) {
+        var payload = new HandshakePayload(version, Map.copyOf(packetVersions));
+        var buf = new PacketByteBuf(Unpooled.buffer());
+        try {
+            payload.write(buf);
+            return new HandshakePayload(payload.version, payload.packetVersions, ByteBufUtil.getBytes(buf));
+        } finally {
+            buf.release();
+        }
+    }
+
+    public void write(PacketByteBuf buf) {
+        if (this.encoded != null) {
+            buf.writeBytes(this.encoded);
+            return;
+        }
         buf.writeString(this.version);
         buf.writeMap(packetVersions, PacketByteBuf::writeIdentifier, PacketByteBuf::writeIntArray);
     }
@@ -3,20 +3,48 @@ package eu.pb4.polymer.networking.impl.packets;
 import com.mojang.serialization.Codec;
 import eu.pb4.polymer.networking.api.ContextByteBuf;
 import eu.pb4.polymer.networking.api.PolymerNetworking;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtSizeTracker;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.network.codec.PacketCodec;
 import net.minecraft.network.packet.CustomPayload;
 import net.minecraft.util.Identifier;
-import xyz.nucleoid.packettweaker.PacketContext;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 
-public record MetadataPayload(Map<Identifier, NbtElement> map) implements CustomPayload {
+/**
+ * @param encoded payload already encoded, written as is instead of map
+ */
+public record MetadataPayload(Map<Identifier, NbtElement> map, @Nullable byte[] encoded) implements CustomPayload {
     public static final Id<MetadataPayload> ID = PolymerNetworking.id("polymer", "metadata");
     public static final PacketCodec<ContextByteBuf, MetadataPayload> CODEC = PacketCodec.of(MetadataPayload::write, MetadataPayload::read);
-    public void write(ContextByteBuf buf) {
+
+    public MetadataPayload(Map<Identifier, NbtElement> map) {
+        this(map, null);
+    }
+
+    /**
+     * Creates payload encoded once, so it can be sent to any number of players without encoding it again.
+     */
+    public static MetadataPayload preEncoded(Map<Identifier, NbtElement> map) {
+        var payload = new MetadataPayload(Map.copyOf(map));
+        var buf = new PacketByteBuf(Unpooled.buffer());
+        try {
+            payload.write(buf);
+            return new MetadataPayload(payload.map, ByteBufUtil.getBytes(buf));
+        } finally {
+            buf.release();
+        }
+    }
+
+    public void write(PacketByteBuf buf) {
+        if (this.encoded != null) {
+            buf.writeBytes(this.encoded);
+            return;
+        }
         buf.writeMap(map, PacketByteBuf::writeIdentifier, (x, n) -> x.writeNbt(n));
     }
 
@@ -1,16 +1,26 @@
 package eu.pb4.polymer.networking.mixin;
 
+import eu.pb4.polymer.networking.api.MetadataKey;
+import eu.pb4.polymer.networking.api.PayloadKey;
+import eu.pb4.polymer.networking.impl.DeferredPacketQueue;
 import eu.pb4.polymer.networking.impl.ExtClientConnection;
+import eu.pb4.polymer.networking.impl.PayloadBatcher;
+import eu.pb4.polymer.networking.impl.PayloadIndex;
+import eu.pb4.polymer.networking.impl.packets.BatchIdsS2CPayload;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.network.ClientConnection;
+import net.minecraft.network.PacketCallbacks;
 import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.common.CustomPayloadS2CPacket;
 import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
@@ -18,20 +28,43 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 @Mixin(ClientConnection.class)
 public class ClientConnectionMixin implements ExtClientConnection {
+    @Unique
+    private static final Object NO_VALUE = new Object();
     @Shadow private int packetsReceivedCounter;
     @Shadow private Channel channel;
 
     @Unique
-    private String polymerNet$version = "";
+    private volatile String polymerNet$version = "";
+    @Unique
+    private volatile Object2IntMap<Identifier> polymerNet$protocolMap = new Object2IntOpenHashMap<>();
+    /**
+     * Supported versions indexed by {@link PayloadIndex}, stored increased by one, so unset entries map to -1.
+     * Covers all keys that existed once it was created.
+     */
     @Unique
-    private final Object2IntMap<Identifier> polymerNet$protocolMap = new Object2IntOpenHashMap<>();
+    private volatile int[] polymerNet$versionTable = new int[0];
 
     @Unique
     private final Object2ObjectMap<Identifier, NbtElement> polymerNet$metadata = new Object2ObjectOpenHashMap<>();
+    /**
+     * Decoded values of {@link MetadataKey}s, indexed by key. Absent values are stored as {@link #NO_VALUE}.
+     */
+    @Unique
+    private volatile Object[] polymerNet$decodedMetadata = new Object[0];
+    @Unique
+    private final Object polymerNet$decodedMetadataLock = new Object();
+    @Unique
+    @Nullable
+    private volatile PayloadBatcher polymerNet$batcher;
+    @Unique
+    private final DeferredPacketQueue polymerNet$deferredPackets = new DeferredPacketQueue((ClientConnection) (Object) this);
     @Unique
     private Consumer<Packet<?>> polymerNet$packetConsumer;
     @Override
@@ -54,9 +87,70 @@ public class ClientConnectionMixin implements ExtClientConnection {
         return this.polymerNet$protocolMap.getOrDefault(identifier, -1);
     }
 
+    @Override
+    public int polymerNet$getSupportedVersion(PayloadKey<?> key) {
+        var table = this.polymerNet$versionTable;
+        // Keys created after table was built aren't part of it yet
+        return key.index() < table.length ? table[key.index()] - 1 : this.polymerNet$protocolMap.getOrDefault(key.id(), -1);
+    }
+
     @Override
     public void polymerNet$setSupportedVersion(Identifier identifier, int i) {
-        this.polymerNet$protocolMap.put(identifier, i);
+        var map = this.polymerNet$protocolMap;
+        if (i == -1) {
+            map.removeInt(identifier);
+        } else {
+            map.put(identifier, i);
+        }
+        // Keys are only created for locally registered payloads, never for ones reported by other side
+        var key = PayloadIndex.find(identifier);
+        var table = this.polymerNet$versionTable;
+        if (key != null && key.index() < table.length) {
+            table = table.clone();
+            table[key.index()] = i + 1;
+            this.polymerNet$versionTable = table;
+        } else if (key != null) {
+            this.polymerNet$versionTable = polymerNet$createVersionTable(map);
+        }
+    }
+
+    /**
+     * Replaces all versions at once, so it can be called outside of server thread.
+     * Unsupported (-1) payloads are skipped.
+     */
+    @Override
+    public void polymerNet$setSupportedVersions(Object2IntMap<Identifier> versions) {
+        var map = new Object2IntOpenHashMap<Identifier>(versions.size());
+        for (var entry : Object2IntMaps.fastIterable(versions)) {
+            if (entry.getIntValue() != -1) {
+                map.put(entry.getKey(), entry.getIntValue());
+            }
+        }
+        this.polymerNet$versionTable = polymerNet$createVersionTable(map);
+        this.polymerNet$protocolMap = map;
+    }
+
+    @Unique
+    private static int[] polymerNet$createVersionTable(Object2IntMap<Identifier> versions) {
+        var table = new int[PayloadIndex.size()];
+        for (var entry : Object2IntMaps.fastIterable(versions)) {
+            var key = PayloadIndex.find(entry.getKey());
+            if (key != null && key.index() < table.length) {
+                table[key.index()] = entry.getIntValue() + 1;
+            }
+        }
+        return table;
+    }
+
+    @Override
+    public void polymerNet$clearSupportedVersions() {
+        this.polymerNet$protocolMap = new Object2IntOpenHashMap<>();
+        this.polymerNet$versionTable = new int[0];
+        var batcher = this.polymerNet$batcher;
+        if (batcher != null) {
+            this.polymerNet$batcher = null;
+            batcher.flush(true);
+        }
     }
 
     @Override
@@ -69,6 +163,54 @@ public class ClientConnectionMixin implements ExtClientConnection {
         return this.polymerNet$metadata;
     }
 
+    @Override
+    public void polymerNet$setMetadata(Identifier identifier, @Nullable NbtElement value) {
+        if (value != null) {
+            this.polymerNet$metadata.put(identifier, value);
+        } else {
+            this.polymerNet$metadata.remove(identifier);
+        }
+
+        var key = MetadataKey.find(identifier);
+        if (key != null) {
+            this.polymerNet$storeDecoded(key, value);
+        }
+    }
+
+    @Override
+    public void polymerNet$clearMetadata() {
+        this.polymerNet$metadata.clear();
+        synchronized (this.polymerNet$decodedMetadataLock) {
+            this.polymerNet$decodedMetadata = new Object[0];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> @Nullable T polymerNet$getMetadata(MetadataKey<T> key) {
+        var decoded = this.polymerNet$decodedMetadata;
+        var value = key.index() < decoded.length ? decoded[key.index()] : null;
+        if (value == null) {
+            // Key was created after metadata arrived. It's decoded without caching, as only metadata updates write decoded values
+            var element = this.polymerNet$metadata.get(key.id());
+            return element != null ? key.decode(element) : null;
+        }
+        return value != NO_VALUE ? (T) value : null;
+    }
+
+    @Unique
+    private void polymerNet$storeDecoded(MetadataKey<?> key, @Nullable NbtElement element) {
+        Object value = element != null ? key.decode(element) : null;
+        if (value == null) {
+            value = NO_VALUE;
+        }
+        synchronized (this.polymerNet$decodedMetadataLock) {
+            var decoded = Arrays.copyOf(this.polymerNet$decodedMetadata, Math.max(key.index() + 1, this.polymerNet$decodedMetadata.length));
+            decoded[key.index()] = value;
+            this.polymerNet$decodedMetadata = decoded;
+        }
+    }
+
     @Inject(method = "channelRead0(Lio/netty/channel/ChannelHandlerContext;Lnet/minecraft/network/packet/Packet;)V", at = @At("HEAD"), cancellable = true)
     private void polymerNet$handlePacket(ChannelHandlerContext channelHandlerContext, Packet<?> packet, CallbackInfo ci) {
         if (this.polymerNet$packetConsumer != null) {
@@ -78,11 +220,48 @@ public class ClientConnectionMixin implements ExtClientConnection {
         }
     }
 
+    @Inject(method = "send(Lnet/minecraft/network/packet/Packet;Lnet/minecraft/network/PacketCallbacks;Z)V", at = @At("HEAD"), cancellable = true)
+    private void polymerNet$holdDeferredPackets(Packet<?> packet, @Nullable PacketCallbacks callbacks, boolean flush, CallbackInfo ci) {
+        if (this.polymerNet$deferredPackets.offer(packet, callbacks, flush)) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "send(Lnet/minecraft/network/packet/Packet;Lnet/minecraft/network/PacketCallbacks;Z)V", at = @At("HEAD"), cancellable = true)
+    private void polymerNet$batchPayloads(Packet<?> packet, @Nullable PacketCallbacks callbacks, boolean flush, CallbackInfo ci) {
+        var batcher = this.polymerNet$batcher;
+        if (batcher != null) {
+            if (callbacks == null && packet instanceof CustomPayloadS2CPacket payloadPacket && batcher.add(payloadPacket.payload())) {
+                ci.cancel();
+                return;
+            }
+            batcher.flush(false);
+        }
+
+        if (packet instanceof CustomPayloadS2CPacket payloadPacket && payloadPacket.payload() instanceof BatchIdsS2CPayload payload
+                && !((ClientConnection) (Object) this).isLocal()) {
+            this.polymerNet$batcher = new PayloadBatcher((ClientConnection) (Object) this, payload.ids());
+        }
+    }
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void polymerNet$flushBatchedPayloads(CallbackInfo ci) {
+        var batcher = this.polymerNet$batcher;
+        if (batcher != null) {
+            batcher.flush(true);
+        }
+    }
+
     @Override
     public void polymerNet$wrongPacketConsumer(Consumer<Packet<?>> consumer) {
         this.polymerNet$packetConsumer = consumer;
     }
 
+    @Override
+    public void polymerNet$sendLater(CompletableFuture<? extends List<? extends Packet<?>>> packets) {
+        this.polymerNet$deferredPackets.add(packets);
+    }
+
     @Override
     public Channel polymerNet$getChannel() {
         return this.channel;
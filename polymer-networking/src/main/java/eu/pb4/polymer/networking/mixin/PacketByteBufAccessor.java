@@ -0,0 +1,14 @@
+package eu.pb4.polymer.networking.mixin;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.PacketByteBuf;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Mutable;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(PacketByteBuf.class)
+public interface PacketByteBufAccessor {
+    @Mutable
+    @Accessor("parent")
+    void polymerNet$setParent(ByteBuf parent);
+}
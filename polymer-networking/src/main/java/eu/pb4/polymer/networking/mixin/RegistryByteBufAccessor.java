@@ -0,0 +1,14 @@
+package eu.pb4.polymer.networking.mixin;
+
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.registry.DynamicRegistryManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Mutable;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(RegistryByteBuf.class)
+public interface RegistryByteBufAccessor {
+    @Mutable
+    @Accessor("registryManager")
+    void polymerNet$setRegistryManager(DynamicRegistryManager registryManager);
+}
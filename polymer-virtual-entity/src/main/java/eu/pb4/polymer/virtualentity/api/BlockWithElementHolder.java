@@ -1,5 +1,6 @@
 package eu.pb4.polymer.virtualentity.api;
 
+import eu.pb4.polymer.virtualentity.impl.VirtualEntityImpl;
 import net.minecraft.block.BlockState;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
@@ -20,6 +21,14 @@ public interface BlockWithElementHolder {
         return false;
     }
 
+    /**
+     * Deferred holders are only created once chunk is sent to a player (or they are requested with {@link eu.pb4.polymer.virtualentity.api.attachment.BlockBoundAttachment#get}),
+     * and are removed again after being unwatched for a while. Don't enable it if holder's tick logic needs to run without any players nearby.
+     */
+    default boolean deferElementHolderCreation(ServerWorld world, BlockPos pos, BlockState initialBlockState) {
+        return VirtualEntityImpl.DEFER_BLOCK_BOUND_HOLDERS;
+    }
+
     @Nullable
     default ElementHolder createMovingElementHolder(ServerWorld world, BlockPos blockPos, BlockState blockState, @Nullable ElementHolder oldStaticElementHolder) {
         return oldStaticElementHolder != null ? oldStaticElementHolder : createElementHolder(world, blockPos, blockState);
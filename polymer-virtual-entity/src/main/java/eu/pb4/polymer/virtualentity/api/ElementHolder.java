@@ -1,20 +1,28 @@
 package eu.pb4.polymer.virtualentity.api;
 
+import eu.pb4.polymer.virtualentity.api.elements.LevelOfDetail;
 import eu.pb4.polymer.virtualentity.api.elements.VirtualElement;
 import eu.pb4.polymer.virtualentity.api.attachment.HolderAttachment;
 import eu.pb4.polymer.virtualentity.impl.HolderHolder;
+import eu.pb4.polymer.virtualentity.impl.HolderPacketBuffer;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.network.listener.ClientPlayPacketListener;
 import net.minecraft.network.packet.Packet;
 import net.minecraft.network.packet.s2c.play.BundleS2CPacket;
 import net.minecraft.network.packet.s2c.play.EntitiesDestroyS2CPacket;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -22,6 +30,8 @@ import java.util.function.Consumer;
 
 public class ElementHolder {
     private final Consumer<Packet<ClientPlayPacketListener>> EMPTY_PACKET_CONSUMER = (p) -> {};
+    private static final int LEVEL_OF_DETAIL_REFRESH_RATE = 10;
+    private static final int LEVEL_OF_DETAIL_UNTRACKED = -2;
 
     private HolderAttachment attachment;
     private final List<VirtualElement> elements = new ObjectArrayList<>();
@@ -32,6 +42,11 @@ public class ElementHolder {
     private final IntList entityIds = new IntArrayList();
     private final IntList attachedPassengerEntityIds = new IntArrayList();
 
+    private final Reference2ObjectOpenHashMap<ServerPlayNetworkHandler, WatcherDetail> levelOfDetail = new Reference2ObjectOpenHashMap<>();
+    private boolean parallelSafe;
+    @Nullable
+    private ElementHolderIndex index;
+
     public boolean isPartOf(int entityId) {
         return this.entityIds.contains(entityId);
     }
@@ -42,15 +57,31 @@ public class ElementHolder {
 
     public <T extends VirtualElement> T addElement(T element) {
         if (this.addElementWithoutUpdates(element)) {
-            for (var player : this.players) {
-                var x = new ArrayList<Packet<? super ClientPlayPacketListener>>();
-                element.startWatching(player.getPlayer(), x::add);
-                player.sendPacket(new BundleS2CPacket(x));
+            var buffer = HolderPacketBuffer.get();
+            if (buffer != null) {
+                buffer.runAfter(() -> {
+                    if (element.getHolder() == this) {
+                        this.startWatchingElement(element);
+                    }
+                });
+            } else {
+                this.startWatchingElement(element);
             }
         }
         return element;
     }
 
+    private void startWatchingElement(VirtualElement element) {
+        for (var player : this.players) {
+            if (this.initLevelOfDetail(player, element) == LevelOfDetail.CULLED) {
+                continue;
+            }
+            var x = new ArrayList<Packet<? super ClientPlayPacketListener>>();
+            element.startWatching(player.getPlayer(), x::add);
+            this.sendPacket(player, new BundleS2CPacket(x));
+        }
+    }
+
     public boolean addElementWithoutUpdates(VirtualElement element) {
         if (!this.elements.contains(element)) {
             this.elements.add(element);
@@ -66,18 +97,33 @@ public class ElementHolder {
             var packet = new EntitiesDestroyS2CPacket(element.getEntityIds());
             for (var player : this.players) {
                 for (var e : this.elements) {
-                    e.stopWatching(player.getPlayer(), player::sendPacket);
+                    e.stopWatching(player.getPlayer(), p -> this.sendPacket(player, p));
                 }
-                player.sendPacket(packet);
+                this.sendPacket(player, packet);
             }
         }
     }
 
+    /**
+     * Removes element and disposes it, releasing its entity ids. It shouldn't be added to any holder afterwards.
+     */
+    public void disposeElement(VirtualElement element) {
+        if (this.elements.contains(element)) {
+            this.removeElement(element);
+            element.dispose();
+        }
+    }
+
     public boolean removeElementWithoutUpdates(VirtualElement element) {
         if (this.elements.contains(element)) {
             this.elements.remove(element);
             this.entityIds.removeAll(element.getEntityIds());
             element.setHolder(null);
+            if (!this.levelOfDetail.isEmpty()) {
+                for (var detail : this.levelOfDetail.values()) {
+                    detail.remove(element);
+                }
+            }
             return true;
         }
         return false;
@@ -93,10 +139,15 @@ public class ElementHolder {
         }
         this.players.add(player);
         ((HolderHolder) player).polymer$addHolder(this);
+        if (this.attachment == null) {
+            ((HolderHolder) player).polymer$markHolderDetached(this);
+        }
         var packets = new ArrayList<Packet<? super ClientPlayPacketListener>>();
 
         for (var e : this.elements) {
-            e.startWatching(player.getPlayer(), packets::add);
+            if (this.initLevelOfDetail(player, e) != LevelOfDetail.CULLED) {
+                e.startWatching(player.getPlayer(), packets::add);
+            }
         }
 
         this.startWatchingExtraPackets(player, packets::add);
@@ -123,11 +174,14 @@ public class ElementHolder {
         }
         this.players.remove(player);
         ((HolderHolder) player).polymer$removeHolder(this);
+        var detail = this.levelOfDetail.remove(player);
 
         Consumer<Packet<ClientPlayPacketListener>> packetConsumer = player.isConnectionOpen() ? player::sendPacket : EMPTY_PACKET_CONSUMER;
 
         for (var e : this.elements) {
-            e.stopWatching(player.getPlayer(), packetConsumer);
+            if (detail == null || detail.getBand(e) != LevelOfDetail.CULLED) {
+                e.stopWatching(player.getPlayer(), packetConsumer);
+            }
         }
         packetConsumer.accept(new EntitiesDestroyS2CPacket(this.entityIds));
 
@@ -152,6 +206,105 @@ public class ElementHolder {
         }
     }
 
+    /**
+     * Refreshes distance bands and sends delayed updates for selected player. Called every tick from player's network handler,
+     * so it also applies to holders that aren't ticked.
+     */
+    @ApiStatus.Internal
+    public void tickLevelOfDetail(ServerPlayNetworkHandler player, int tick) {
+        if (!this.levelOfDetail.containsKey(player)) {
+            return;
+        }
+
+        if (tick % LEVEL_OF_DETAIL_REFRESH_RATE == 0) {
+            this.updateLevelOfDetail(player);
+        }
+
+        var detail = this.levelOfDetail.get(player);
+        if (detail == null || detail.pending.isEmpty()) {
+            return;
+        }
+
+        List<Packet<? super ClientPlayPacketListener>> packets = null;
+        var iterator = detail.pending.iterator();
+        while (iterator.hasNext()) {
+            var element = iterator.next();
+            var lod = element.getLevelOfDetail();
+            var band = detail.getBand(element);
+            if (lod == null || tick % lod.getUpdateInterval(band) == 0) {
+                iterator.remove();
+                if (band != LevelOfDetail.CULLED) {
+                    if (packets == null) {
+                        packets = new ArrayList<>();
+                    }
+                    element.resyncState(player.getPlayer(), packets::add);
+                }
+            }
+        }
+
+        if (packets != null) {
+            this.sendPacket(player, new BundleS2CPacket(packets));
+        }
+    }
+
+    /**
+     * Recalculates distance bands of elements for selected player, (de)spawning elements if needed.
+     */
+    public void updateLevelOfDetail(ServerPlayNetworkHandler player) {
+        WatcherDetail detail = null;
+        double distance = -1;
+        List<Packet<? super ClientPlayPacketListener>> packets = null;
+
+        for (int i = 0; i < this.elements.size(); i++) {
+            var element = this.elements.get(i);
+            var lod = element.getLevelOfDetail();
+            if (lod == null) {
+                continue;
+            }
+
+            if (detail == null) {
+                detail = this.levelOfDetail.computeIfAbsent(player, x -> new WatcherDetail());
+                distance = player.getPlayer().getPos().squaredDistanceTo(this.getPos());
+            }
+
+            var band = lod.getBand(distance);
+            var oldBand = detail.bands.put(element, band);
+
+            if (oldBand == band) {
+                continue;
+            }
+
+            if (packets == null) {
+                packets = new ArrayList<>();
+            }
+
+            if (band == LevelOfDetail.CULLED) {
+                detail.pending.remove(element);
+                element.stopWatching(player.getPlayer(), packets::add);
+                packets.add(new EntitiesDestroyS2CPacket(element.getEntityIds()));
+            } else if (oldBand == LevelOfDetail.CULLED) {
+                detail.pending.remove(element);
+                element.startWatching(player.getPlayer(), packets::add);
+            } else if (detail.pending.remove(element)) {
+                element.resyncState(player.getPlayer(), packets::add);
+            }
+        }
+
+        if (packets != null && !packets.isEmpty()) {
+            this.sendPacket(player, new BundleS2CPacket(packets));
+        }
+    }
+
+    private int initLevelOfDetail(ServerPlayNetworkHandler player, VirtualElement element) {
+        var lod = element.getLevelOfDetail();
+        if (lod == null) {
+            return 0;
+        }
+        var band = lod.getBand(player.getPlayer().getPos().squaredDistanceTo(this.getPos()));
+        this.levelOfDetail.computeIfAbsent(player, x -> new WatcherDetail()).bands.put(element, band);
+        return band;
+    }
+
     protected void onTick() {
     }
 
@@ -165,8 +318,48 @@ public class ElementHolder {
         if (!this.currentPos.equals(newPos)) {
             var delta = newPos.subtract(this.currentPos);
             this.notifyElementsOfPositionUpdate(newPos, delta);
+            var chunkChanged = isDifferentChunk(this.currentPos, newPos);
+            var sectionChanged = chunkChanged || (MathHelper.floor(this.currentPos.y) >> 4) != (MathHelper.floor(newPos.y) >> 4);
             this.currentPos = newPos;
             this.currentChunkPos = null;
+
+            var buffer = HolderPacketBuffer.get();
+            if (buffer != null) {
+                var world = this.attachment.getWorld();
+                buffer.runAfter(() -> this.updateSharedPositionState(world, chunkChanged, sectionChanged));
+            } else {
+                this.updateSharedPositionState(this.attachment.getWorld(), chunkChanged, sectionChanged);
+            }
+        }
+    }
+
+    private void updateSharedPositionState(ServerWorld world, boolean chunkChanged, boolean sectionChanged) {
+        if (chunkChanged) {
+            this.updateWatcherChunks();
+        }
+        if (this.attachment != null) {
+            var index = ElementHolderIndex.get(world);
+            if (index != this.index) {
+                if (this.index != null) {
+                    this.index.remove(this);
+                }
+                this.index = index;
+                index.add(this);
+            } else if (sectionChanged) {
+                index.update(this);
+            }
+        }
+    }
+
+    /**
+     * Removes holder from world index, until its position changes again. Used when attachment's owner is removed from the world,
+     * without destroying the attachment itself.
+     */
+    @ApiStatus.Internal
+    public void removeFromIndex() {
+        if (this.index != null) {
+            this.index.remove(this);
+            this.index = null;
         }
     }
 
@@ -179,10 +372,39 @@ public class ElementHolder {
 
         this.currentPos = newPos;
         this.currentChunkPos = null;
+        this.runSharedUpdate(() -> {
+            this.updateWatcherChunks();
+            if (this.index != null) {
+                this.index.update(this);
+            }
+        });
     }
 
     protected void invalidateCaches() {
         this.currentChunkPos = null;
+        this.runSharedUpdate(this::updateWatcherChunks);
+    }
+
+    /**
+     * Runs modifications of state shared with players and other holders, delaying them if holder is ticked in parallel.
+     */
+    private void runSharedUpdate(Runnable runnable) {
+        var buffer = HolderPacketBuffer.get();
+        if (buffer != null) {
+            buffer.runAfter(runnable);
+        } else {
+            runnable.run();
+        }
+    }
+
+    private void updateWatcherChunks() {
+        for (int i = 0; i < this.players.size(); i++) {
+            ((HolderHolder) this.players.get(i)).polymer$updateHolderChunk(this);
+        }
+    }
+
+    private static boolean isDifferentChunk(Vec3d a, Vec3d b) {
+        return (MathHelper.floor(a.x) >> 4) != (MathHelper.floor(b.x) >> 4) || (MathHelper.floor(a.z) >> 4) != (MathHelper.floor(b.z) >> 4);
     }
 
     public ChunkPos getChunkPos() {
@@ -199,11 +421,66 @@ public class ElementHolder {
     }
 
     public void sendPacket(Packet<? extends ClientPlayPacketListener> packet) {
+        var buffer = HolderPacketBuffer.get();
         for (var player : players) {
+            if (buffer != null) {
+                buffer.sendPacket(player, packet);
+            } else {
+                player.sendPacket(packet);
+            }
+        }
+    }
+
+    protected void sendPacket(ServerPlayNetworkHandler player, Packet<? extends ClientPlayPacketListener> packet) {
+        var buffer = HolderPacketBuffer.get();
+        if (buffer != null) {
+            buffer.sendPacket(player, packet);
+        } else {
             player.sendPacket(packet);
         }
     }
 
+    /**
+     * Sends update packet of selected element, skipping players that are outside of element's full update band.
+     */
+    public void sendPacket(VirtualElement element, Packet<? extends ClientPlayPacketListener> packet) {
+        if (this.levelOfDetail.isEmpty() || element.getLevelOfDetail() == null) {
+            this.sendPacket(packet);
+            return;
+        }
+
+        var lod = element.getLevelOfDetail();
+        for (var player : players) {
+            var detail = this.levelOfDetail.get(player);
+            if (detail == null) {
+                this.sendPacket(player, packet);
+                continue;
+            }
+
+            var band = detail.getBand(element);
+            if (band == LEVEL_OF_DETAIL_UNTRACKED || lod.getUpdateInterval(band) == 1) {
+                this.sendPacket(player, packet);
+            } else if (band != LevelOfDetail.CULLED) {
+                detail.pending.add(element);
+            }
+        }
+    }
+
+    /**
+     * Marks holder as safe to tick outside of server thread, together with other such holders.
+     * This requires {@link #onTick()} and elements to only modify state of this holder, as packets are sent afterwards.
+     * {@link #addElement(VirtualElement)} and {@link #destroy()} are delayed until then, while watching players or attachment
+     * shouldn't be changed directly from it.
+     * Currently only applies to holders with chunk based attachments.
+     */
+    public void setParallelSafe(boolean parallelSafe) {
+        this.parallelSafe = parallelSafe;
+    }
+
+    public boolean isParallelSafe() {
+        return this.parallelSafe;
+    }
+
     @Nullable
     public HolderAttachment getAttachment() {
         return this.attachment;
@@ -216,10 +493,23 @@ public class ElementHolder {
             if (this.currentPos == Vec3d.ZERO && attachment.canUpdatePosition()) {
                 this.updateInitialPosition();
             }
-            attachment.updateCurrentlyTracking(new ArrayList<>(this.players));
+            var index = ElementHolderIndex.get(attachment.getWorld());
+            if (this.index != index && this.index != null) {
+                this.index.remove(this);
+            }
+            this.index = index;
+            index.add(this);
+            attachment.updateCurrentlyTracking(this.players.isEmpty() ? List.of() : new ArrayList<>(this.players));
             this.onAttachmentSet(attachment, oldAttachment);
         } else if (oldAttachment != null) {
+            if (this.index != null) {
+                this.index.remove(this);
+                this.index = null;
+            }
             this.onAttachmentRemoved(oldAttachment);
+            for (int i = 0; i < this.players.size(); i++) {
+                ((HolderHolder) this.players.get(i)).polymer$markHolderDetached(this);
+            }
         }
     }
 
@@ -232,6 +522,18 @@ public class ElementHolder {
     public Vec3d getPos() {
         if (this.currentPos == Vec3d.ZERO && attachment != null && attachment.canUpdatePosition()) {
             this.currentPos = attachment.getPos();
+            var chunkChanged = isDifferentChunk(Vec3d.ZERO, this.currentPos);
+            if (chunkChanged) {
+                this.currentChunkPos = null;
+            }
+            this.runSharedUpdate(() -> {
+                if (chunkChanged) {
+                    this.updateWatcherChunks();
+                }
+                if (this.index != null) {
+                    this.index.update(this);
+                }
+            });
         }
 
         return this.currentPos;
@@ -246,7 +548,17 @@ public class ElementHolder {
         return VirtualElement.InteractionHandler.EMPTY;
     }
 
+    /**
+     * Removes holder for all players and destroys its attachment, disposing its elements.
+     * To only detach holder, so it can be attached again later, destroy its attachment instead.
+     */
     public void destroy() {
+        var buffer = HolderPacketBuffer.get();
+        if (buffer != null) {
+            buffer.runAfter(this::destroy);
+            return;
+        }
+
         for (var x : new ArrayList<>(this.players)) {
             this.stopWatching(x);
         }
@@ -254,6 +566,10 @@ public class ElementHolder {
         if (this.attachment != null) {
             this.attachment.destroy();
         }
+
+        for (int i = 0; i < this.elements.size(); i++) {
+            this.elements.get(i).dispose();
+        }
     }
 
     public Collection<ServerPlayNetworkHandler> getWatchingPlayers() {
@@ -290,4 +606,22 @@ public class ElementHolder {
     public void removePassengerId(int i) {
         this.attachedPassengerEntityIds.add(i);
     }
+
+    private static final class WatcherDetail {
+        private final Reference2IntOpenHashMap<VirtualElement> bands = new Reference2IntOpenHashMap<>();
+        private final ReferenceOpenHashSet<VirtualElement> pending = new ReferenceOpenHashSet<>();
+
+        private WatcherDetail() {
+            this.bands.defaultReturnValue(LEVEL_OF_DETAIL_UNTRACKED);
+        }
+
+        private int getBand(VirtualElement element) {
+            return this.bands.getInt(element);
+        }
+
+        private void remove(VirtualElement element) {
+            this.bands.removeInt(element);
+            this.pending.remove(element);
+        }
+    }
 }
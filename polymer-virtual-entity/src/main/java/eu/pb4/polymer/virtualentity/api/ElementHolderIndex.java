@@ -0,0 +1,175 @@
+package eu.pb4.polymer.virtualentity.api;
+
+import eu.pb4.polymer.virtualentity.impl.ServerWorldExt;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceArrayList;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Per world index of attached element holders, grouped by chunk sections they are in.
+ * Holders are added, moved and removed automatically, based on their attachment.
+ */
+public final class ElementHolderIndex {
+    private final Long2ObjectOpenHashMap<List<ElementHolder>> sections = new Long2ObjectOpenHashMap<>();
+    private final Reference2LongOpenHashMap<ElementHolder> holderSections = new Reference2LongOpenHashMap<>();
+
+    @ApiStatus.Internal
+    public ElementHolderIndex() {}
+
+    public static ElementHolderIndex get(ServerWorld world) {
+        return ((ServerWorldExt) world).polymerVE$getHolderIndex();
+    }
+
+    public int size() {
+        return this.holderSections.size();
+    }
+
+    public boolean contains(ElementHolder holder) {
+        return this.holderSections.containsKey(holder);
+    }
+
+    public void forEachInBox(Box box, Consumer<ElementHolder> consumer) {
+        if (this.holderSections.isEmpty()) {
+            return;
+        }
+
+        int minX = MathHelper.floor(box.minX) >> 4;
+        int minY = MathHelper.floor(box.minY) >> 4;
+        int minZ = MathHelper.floor(box.minZ) >> 4;
+        int maxX = MathHelper.floor(box.maxX) >> 4;
+        int maxY = MathHelper.floor(box.maxY) >> 4;
+        int maxZ = MathHelper.floor(box.maxZ) >> 4;
+
+        long volume = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+
+        if (volume > this.sections.size()) {
+            for (var entry : Long2ObjectMaps.fastIterable(this.sections)) {
+                var key = entry.getLongKey();
+                int x = ChunkSectionPos.unpackX(key);
+                int y = ChunkSectionPos.unpackY(key);
+                int z = ChunkSectionPos.unpackZ(key);
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                    forEachIn(entry.getValue(), box, consumer);
+                }
+            }
+        } else {
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        var list = this.sections.get(ChunkSectionPos.asLong(x, y, z));
+                        if (list != null) {
+                            forEachIn(list, box, consumer);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public List<ElementHolder> getInBox(Box box) {
+        var list = new ArrayList<ElementHolder>();
+        this.forEachInBox(box, list::add);
+        return list;
+    }
+
+    public void forEachInRange(Vec3d center, double radius, Consumer<ElementHolder> consumer) {
+        var radiusSquared = radius * radius;
+        this.forEachInBox(new Box(center.x - radius, center.y - radius, center.z - radius, center.x + radius, center.y + radius, center.z + radius), (holder) -> {
+            if (holder.getPos().squaredDistanceTo(center) <= radiusSquared) {
+                consumer.accept(holder);
+            }
+        });
+    }
+
+    public List<ElementHolder> getInRange(Vec3d center, double radius) {
+        var list = new ArrayList<ElementHolder>();
+        this.forEachInRange(center, radius, list::add);
+        return list;
+    }
+
+    /**
+     * Returns holders with position within selected distance from line segment, sorted by distance from start.
+     */
+    public List<ElementHolder> raycast(Vec3d start, Vec3d end, double radius) {
+        var list = new ArrayList<ElementHolder>();
+        var direction = end.subtract(start);
+        var lengthSquared = direction.lengthSquared();
+        var radiusSquared = radius * radius;
+
+        this.forEachInBox(new Box(start, end).expand(radius), (holder) -> {
+            var pos = holder.getPos();
+            var closest = lengthSquared == 0 ? start : start.add(direction.multiply(MathHelper.clamp(pos.subtract(start).dotProduct(direction) / lengthSquared, 0, 1)));
+            if (closest.squaredDistanceTo(pos) <= radiusSquared) {
+                list.add(holder);
+            }
+        });
+
+        list.sort(Comparator.comparingDouble(holder -> holder.getPos().squaredDistanceTo(start)));
+        return list;
+    }
+
+    void add(ElementHolder holder) {
+        var section = sectionKey(holder.getPos());
+        if (this.holderSections.containsKey(holder)) {
+            this.move(holder, section);
+            return;
+        }
+        this.holderSections.put(holder, section);
+        this.sections.computeIfAbsent(section, x -> new ReferenceArrayList<>()).add(holder);
+    }
+
+    void update(ElementHolder holder) {
+        if (this.holderSections.containsKey(holder)) {
+            this.move(holder, sectionKey(holder.getPos()));
+        }
+    }
+
+    void remove(ElementHolder holder) {
+        if (this.holderSections.containsKey(holder)) {
+            this.removeFromSection(this.holderSections.removeLong(holder), holder);
+        }
+    }
+
+    private void move(ElementHolder holder, long section) {
+        var oldSection = this.holderSections.put(holder, section);
+        if (oldSection != section) {
+            this.removeFromSection(oldSection, holder);
+            this.sections.computeIfAbsent(section, x -> new ReferenceArrayList<>()).add(holder);
+        }
+    }
+
+    private void removeFromSection(long section, ElementHolder holder) {
+        var list = this.sections.get(section);
+        if (list != null) {
+            list.remove(holder);
+            if (list.isEmpty()) {
+                this.sections.remove(section);
+            }
+        }
+    }
+
+    private static void forEachIn(List<ElementHolder> list, Box box, Consumer<ElementHolder> consumer) {
+        for (int i = 0; i < list.size(); i++) {
+            var holder = list.get(i);
+            if (box.contains(holder.getPos())) {
+                consumer.accept(holder);
+            }
+        }
+    }
+
+    private static long sectionKey(Vec3d pos) {
+        return ChunkSectionPos.asLong(MathHelper.floor(pos.x) >> 4, MathHelper.floor(pos.y) >> 4, MathHelper.floor(pos.z) >> 4);
+    }
+}
@@ -0,0 +1,68 @@
+package eu.pb4.polymer.virtualentity.api;
+
+import eu.pb4.polymer.virtualentity.api.elements.GenericEntityElement;
+import eu.pb4.polymer.virtualentity.api.elements.InstancedElement;
+import eu.pb4.polymer.virtualentity.api.elements.VirtualElement;
+
+import java.util.List;
+
+/**
+ * Snapshot of holder's elements, that can be used to create any amount of identical holders.
+ * Instances share tracked data (and serialized entries sent with spawn packets) with the template,
+ * storing only their own entity ids, position and values modified afterwards.
+ *
+ * <pre>{@code
+ * private static final ElementHolderTemplate TEMPLATE = ElementHolderTemplate.of(createPrototype());
+ *
+ * public ElementHolder createElementHolder(ServerWorld world, BlockPos pos, BlockState initialBlockState) {
+ *     return TEMPLATE.createHolder();
+ * }
+ * }</pre>
+ */
+public final class ElementHolderTemplate {
+    private final InstancedElement.Template[] elements;
+
+    private ElementHolderTemplate(InstancedElement.Template[] elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Creates template from current state of holder's elements. Only elements extending {@link GenericEntityElement} are supported.
+     */
+    public static ElementHolderTemplate of(ElementHolder prototype) {
+        return of(prototype.getElements());
+    }
+
+    public static ElementHolderTemplate of(List<? extends VirtualElement> elements) {
+        var templates = new InstancedElement.Template[elements.size()];
+        for (int i = 0; i < templates.length; i++) {
+            if (!(elements.get(i) instanceof GenericEntityElement element)) {
+                throw new IllegalArgumentException("Element " + elements.get(i) + " can't be used in a template!");
+            }
+            templates[i] = InstancedElement.Template.of(element);
+        }
+        return new ElementHolderTemplate(templates);
+    }
+
+    public ElementHolder createHolder() {
+        return this.populate(new ElementHolder());
+    }
+
+    /**
+     * Adds new instances of template's elements to selected holder.
+     */
+    public <T extends ElementHolder> T populate(T holder) {
+        for (var element : this.elements) {
+            holder.addElement(element.createElement());
+        }
+        return holder;
+    }
+
+    public int size() {
+        return this.elements.length;
+    }
+
+    public InstancedElement.Template getElement(int index) {
+        return this.elements[index];
+    }
+}
@@ -3,10 +3,10 @@ package eu.pb4.polymer.virtualentity.api;
 import eu.pb4.polymer.common.api.PolymerCommonUtils;
 import eu.pb4.polymer.common.impl.CompatStatus;
 import eu.pb4.polymer.virtualentity.impl.EntityExt;
+import eu.pb4.polymer.virtualentity.impl.EntityIdAllocator;
 import eu.pb4.polymer.virtualentity.impl.compat.ImmersivePortalsUtils;
 import eu.pb4.polymer.virtualentity.mixin.EntityPassengersSetS2CPacketAccessor;
 import eu.pb4.polymer.virtualentity.mixin.SetCameraEntityS2CPacketAccessor;
-import eu.pb4.polymer.virtualentity.mixin.accessors.EntityAccessor;
 import eu.pb4.polymer.virtualentity.mixin.accessors.PlaySoundFromEntityS2CPacketAccessor;
 import it.unimi.dsi.fastutil.ints.IntList;
 import net.minecraft.entity.Entity;
@@ -16,6 +16,7 @@ import net.minecraft.network.packet.Packet;
 import net.minecraft.network.packet.s2c.play.*;
 import net.minecraft.registry.entry.RegistryEntry;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerChunkManager;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvent;
@@ -24,11 +25,29 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.chunk.WorldChunk;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+
 
 public final class VirtualEntityUtils {
     private VirtualEntityUtils() {}
     public static int requestEntityId() {
-        return EntityAccessor.getCURRENT_ID().incrementAndGet();
+        return EntityIdAllocator.request();
+    }
+
+    /**
+     * Returns entity id requested with {@link #requestEntityId()}, allowing it to be reused after a delay.
+     * It should be called only once per id, after entity using it got removed for all players.
+     */
+    public static void releaseEntityId(int id) {
+        EntityIdAllocator.release(id);
+    }
+
+    /**
+     * Amount of entity ids handed out by {@link #requestEntityId()}, that weren't released yet.
+     * Elements release their ids once disposed, see {@link eu.pb4.polymer.virtualentity.api.elements.VirtualElement#dispose()}.
+     */
+    public static int getLiveEntityIdCount() {
+        return EntityIdAllocator.getLiveCount();
     }
 
     public static void addVirtualPassenger(Entity entity, int passengerId) {
@@ -124,6 +143,14 @@ public final class VirtualEntityUtils {
         return player.getChunkFilter().isWithinDistance(chunk.getPos().x, chunk.getPos().z);
     }
 
+    public static List<ServerPlayerEntity> getPlayersWatchingChunk(WorldChunk chunk) {
+        if (CompatStatus.IMMERSIVE_PORTALS) {
+            return ImmersivePortalsUtils.getPlayerTracking(chunk);
+        } else {
+            return ((ServerChunkManager) chunk.getWorld().getChunkManager()).chunkLoadingManager.getPlayersWatchingChunk(chunk.getPos(), false);
+        }
+    }
+
     /**
      * Purely for compatibility with immersive portals.
      */
@@ -0,0 +1,164 @@
+package eu.pb4.polymer.virtualentity.api.animation;
+
+import eu.pb4.polymer.virtualentity.api.elements.DisplayElement;
+import net.minecraft.util.math.AffineTransformation;
+import org.joml.Quaternionf;
+import org.joml.Quaternionfc;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Immutable keyframe timeline for display elements. Keyframes are compiled once into linear interpolation segments,
+ * so single instance can (and should) be shared between any amount of elements.
+ */
+public final class Animation {
+    private final Segment[] segments;
+    private final List<Consumer<DisplayElement>> endTriggers;
+    private final boolean loop;
+    private final int duration;
+
+    private Animation(Segment[] segments, List<Consumer<DisplayElement>> endTriggers, boolean loop) {
+        this.segments = segments;
+        this.endTriggers = endTriggers;
+        this.loop = loop;
+        int duration = 0;
+        for (var segment : segments) {
+            duration += segment.duration;
+        }
+        this.duration = duration;
+    }
+
+    public static Builder builder() {
+        return new Builder(AffineTransformation.identity());
+    }
+
+    public static Builder builder(AffineTransformation start) {
+        return new Builder(start);
+    }
+
+    public boolean loops() {
+        return this.loop;
+    }
+
+    public int duration() {
+        return this.duration;
+    }
+
+    public int segmentCount() {
+        return this.segments.length;
+    }
+
+    public Segment getSegment(int index) {
+        return this.segments[index];
+    }
+
+    List<Consumer<DisplayElement>> endTriggers() {
+        return this.endTriggers;
+    }
+
+    public record Segment(Vector3fc translation, Quaternionfc leftRotation, Vector3fc scale, Quaternionfc rightRotation,
+                          int duration, List<Consumer<DisplayElement>> triggers) {
+        public void apply(DisplayElement element) {
+            element.setTranslation(this.translation);
+            element.setLeftRotation(this.leftRotation);
+            element.setScale(this.scale);
+            element.setRightRotation(this.rightRotation);
+            element.setInterpolationDuration(this.duration);
+            element.startInterpolation();
+        }
+    }
+
+    public static final class Builder {
+        private final List<Segment> segments = new ArrayList<>();
+        private List<Consumer<DisplayElement>> pendingTriggers = new ArrayList<>();
+        private Vector3f translation;
+        private Quaternionf leftRotation;
+        private Vector3f scale;
+        private Quaternionf rightRotation;
+        private boolean loop;
+
+        private Builder(AffineTransformation start) {
+            this.translation = new Vector3f(start.getTranslation());
+            this.leftRotation = new Quaternionf(start.getLeftRotation());
+            this.scale = new Vector3f(start.getScale());
+            this.rightRotation = new Quaternionf(start.getRightRotation());
+        }
+
+        public Builder keyframe(AffineTransformation target, int duration) {
+            return this.keyframe(target, duration, Easing.LINEAR);
+        }
+
+        public Builder keyframe(AffineTransformation target, int duration, Easing easing) {
+            return this.keyframe(target, duration, easing, easing.defaultSegments(duration));
+        }
+
+        public Builder keyframe(AffineTransformation target, int duration, Easing easing, int segmentCount) {
+            duration = Math.max(duration, 0);
+            segmentCount = Math.max(Math.min(segmentCount, duration), 1);
+
+            var startTranslation = this.translation;
+            var startLeftRotation = this.leftRotation;
+            var startScale = this.scale;
+            var startRightRotation = this.rightRotation;
+            var targetTranslation = target.getTranslation();
+            var targetLeftRotation = target.getLeftRotation();
+            var targetScale = target.getScale();
+            var targetRightRotation = target.getRightRotation();
+
+            int usedDuration = 0;
+            for (int i = 1; i <= segmentCount; i++) {
+                int end = duration * i / segmentCount;
+                float progress = i == segmentCount ? 1 : easing.apply((float) end / duration);
+
+                this.translation = startTranslation.lerp(targetTranslation, progress, new Vector3f());
+                this.leftRotation = startLeftRotation.slerp(targetLeftRotation, progress, new Quaternionf());
+                this.scale = startScale.lerp(targetScale, progress, new Vector3f());
+                this.rightRotation = startRightRotation.slerp(targetRightRotation, progress, new Quaternionf());
+
+                this.segments.add(new Segment(this.translation, this.leftRotation, this.scale, this.rightRotation, end - usedDuration, this.takeTriggers()));
+                usedDuration = end;
+            }
+            return this;
+        }
+
+        /**
+         * Keeps current transformation for selected amount of ticks.
+         */
+        public Builder hold(int duration) {
+            if (duration > 0) {
+                this.segments.add(new Segment(this.translation, this.leftRotation, this.scale, this.rightRotation, duration, this.takeTriggers()));
+            }
+            return this;
+        }
+
+        /**
+         * Runs trigger once animation reaches this point of the timeline.
+         */
+        public Builder trigger(Consumer<DisplayElement> trigger) {
+            this.pendingTriggers.add(trigger);
+            return this;
+        }
+
+        public Builder loop(boolean loop) {
+            this.loop = loop;
+            return this;
+        }
+
+        public Animation build() {
+            return new Animation(this.segments.toArray(new Segment[0]), List.copyOf(this.pendingTriggers), this.loop);
+        }
+
+        private List<Consumer<DisplayElement>> takeTriggers() {
+            if (this.pendingTriggers.isEmpty()) {
+                return List.of();
+            }
+            var triggers = List.copyOf(this.pendingTriggers);
+            this.pendingTriggers = new ArrayList<>();
+            return triggers;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package eu.pb4.polymer.virtualentity.api.animation;
+
+import eu.pb4.polymer.virtualentity.api.elements.DisplayElement;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per element playback state of an {@link Animation}. Tracker values are only modified at segment boundaries,
+ * with clients interpolating between them on their own.
+ */
+public final class AnimationPlayer {
+    @Nullable
+    private Animation animation;
+    private int segment;
+    private int remainingTicks;
+    private boolean paused;
+
+    public void play(Animation animation) {
+        this.animation = animation;
+        this.segment = 0;
+        this.remainingTicks = 0;
+        this.paused = false;
+    }
+
+    public void stop() {
+        this.animation = null;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isPaused() {
+        return this.paused;
+    }
+
+    public boolean isPlaying() {
+        return this.animation != null;
+    }
+
+    @Nullable
+    public Animation getAnimation() {
+        return this.animation;
+    }
+
+    public void tick(DisplayElement element) {
+        var animation = this.animation;
+        if (animation == null || this.paused) {
+            return;
+        }
+
+        if (this.remainingTicks > 1) {
+            this.remainingTicks--;
+            return;
+        }
+
+        // Zero length segments are applied in the same tick, limited to single pass over the timeline
+        for (int i = 0; i <= animation.segmentCount(); i++) {
+            if (this.segment >= animation.segmentCount()) {
+                for (var trigger : animation.endTriggers()) {
+                    trigger.accept(element);
+                }
+
+                if (!animation.loops() || this.animation != animation || animation.segmentCount() == 0) {
+                    if (this.animation == animation) {
+                        this.animation = null;
+                    }
+                    return;
+                }
+                this.segment = 0;
+            }
+
+            var current = animation.getSegment(this.segment++);
+            current.apply(element);
+            for (var trigger : current.triggers()) {
+                trigger.accept(element);
+            }
+
+            if (this.animation != animation) {
+                return;
+            }
+
+            if (current.duration() > 0) {
+                this.remainingTicks = current.duration();
+                return;
+            }
+        }
+    }
+}
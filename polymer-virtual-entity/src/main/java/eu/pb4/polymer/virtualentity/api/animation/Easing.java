@@ -0,0 +1,19 @@
+package eu.pb4.polymer.virtualentity.api.animation;
+
+/**
+ * Clients only interpolate display transformations linearly, so non-linear easing is approximated
+ * by splitting keyframe into multiple linear segments.
+ */
+@FunctionalInterface
+public interface Easing {
+    Easing LINEAR = t -> t;
+    Easing EASE_IN = t -> t * t;
+    Easing EASE_OUT = t -> 1 - (1 - t) * (1 - t);
+    Easing EASE_IN_OUT = t -> t < 0.5f ? 2 * t * t : 1 - (-2 * t + 2) * (-2 * t + 2) / 2;
+
+    float apply(float progress);
+
+    default int defaultSegments(int duration) {
+        return this == LINEAR ? 1 : Math.min(duration, 4);
+    }
+}
@@ -1,22 +1,17 @@
 package eu.pb4.polymer.virtualentity.api.attachment;
 
 import eu.pb4.polymer.common.impl.CommonImpl;
-import eu.pb4.polymer.common.impl.CompatStatus;
 import eu.pb4.polymer.virtualentity.api.ElementHolder;
 import eu.pb4.polymer.virtualentity.api.VirtualEntityUtils;
 import eu.pb4.polymer.virtualentity.impl.HolderAttachmentHolder;
-import eu.pb4.polymer.virtualentity.impl.compat.ImmersivePortalsUtils;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
-import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.server.world.ServerChunkManager;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.chunk.WorldChunk;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 @SuppressWarnings("ClassCanBeRecord")
 public class ChunkAttachment implements HolderAttachment {
@@ -95,29 +90,29 @@ public class ChunkAttachment implements HolderAttachment {
 
     @Override
     public void updateCurrentlyTracking(Collection<ServerPlayNetworkHandler> currentlyTracking) {
-        List<ServerPlayNetworkHandler> watching = new ArrayList<>();
+        var players = VirtualEntityUtils.getPlayersWatchingChunk(chunk);
 
-        for (ServerPlayerEntity x : getPlayersWatchingChunk(chunk)) {
-            ServerPlayNetworkHandler networkHandler = x.networkHandler;
-            watching.add(networkHandler);
+        if (currentlyTracking.isEmpty()) {
+            for (int i = 0; i < players.size(); i++) {
+                this.holder.startWatching(players.get(i).networkHandler);
+            }
+            return;
+        }
+
+        var watching = new ReferenceOpenHashSet<ServerPlayNetworkHandler>(players.size());
+        for (int i = 0; i < players.size(); i++) {
+            watching.add(players.get(i).networkHandler);
         }
 
+        // Leaves only players that aren't tracking it yet
         for (var player : currentlyTracking) {
-            if (!watching.contains(player)) {
+            if (!watching.remove(player)) {
                 this.holder.stopWatching(player);
             }
         }
 
         for (var x : watching) {
-            this.holder.startWatching(x.getPlayer().networkHandler);
-        }
-    }
-
-    private static List<ServerPlayerEntity> getPlayersWatchingChunk(WorldChunk chunk) {
-        if (CompatStatus.IMMERSIVE_PORTALS) {
-            return ImmersivePortalsUtils.getPlayerTracking(chunk);
-        } else {
-            return ((ServerChunkManager) chunk.getWorld().getChunkManager()).chunkLoadingManager.getPlayersWatchingChunk(chunk.getPos(), false);
+            this.holder.startWatching(x);
         }
     }
 
@@ -125,6 +120,8 @@ public class ChunkAttachment implements HolderAttachment {
     public void updateTracking(ServerPlayNetworkHandler tracking) {
         if (tracking.player.isDead() || !VirtualEntityUtils.isPlayerTracking(tracking.getPlayer(), this.chunk)) {
             this.stopWatching(tracking);
+        } else if (this.holder.getAttachment() == this) {
+            this.holder.updateLevelOfDetail(tracking);
         }
     }
 
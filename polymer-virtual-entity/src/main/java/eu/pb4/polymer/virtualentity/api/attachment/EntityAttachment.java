@@ -4,6 +4,7 @@ import eu.pb4.polymer.virtualentity.api.ElementHolder;
 import eu.pb4.polymer.virtualentity.impl.HolderAttachmentHolder;
 import eu.pb4.polymer.virtualentity.mixin.accessors.EntityTrackerAccessor;
 import eu.pb4.polymer.virtualentity.mixin.accessors.ServerChunkLoadingManagerAccessor;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.entity.Entity;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
 import net.minecraft.server.world.ServerWorld;
@@ -71,14 +72,26 @@ public class EntityAttachment implements HolderAttachment {
 
         var watching = ((EntityTrackerAccessor) entry).getListeners();
 
-        for (var player : currentlyTracking) {
+        // Further changes are handled by EntityTrackerEntry's startTracking/stopTracking
+        if (currentlyTracking.isEmpty()) {
+            for (var x : watching) {
+                this.holder.startWatching(x.getPlayer().networkHandler);
+            }
+            return;
+        }
+
+        var tracking = new ReferenceOpenHashSet<>(currentlyTracking);
+        for (var player : tracking) {
             if (!watching.contains(player)) {
                 this.holder.stopWatching(player);
             }
         }
 
         for (var x : watching) {
-            this.holder.startWatching(x.getPlayer().networkHandler);
+            var handler = x.getPlayer().networkHandler;
+            if (!tracking.contains(handler)) {
+                this.holder.startWatching(handler);
+            }
         }
     }
 
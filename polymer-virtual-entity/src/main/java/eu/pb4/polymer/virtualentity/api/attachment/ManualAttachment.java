@@ -1,6 +1,7 @@
 package eu.pb4.polymer.virtualentity.api.attachment;
 
 import eu.pb4.polymer.virtualentity.api.ElementHolder;
+import eu.pb4.polymer.virtualentity.api.ElementHolderIndex;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.Vec3d;
@@ -14,6 +15,17 @@ public record ManualAttachment(ElementHolder holder, ServerWorld world, Supplier
         holder.setAttachment(this);
     }
 
+    /**
+     * Starts watching all manually attached holders within selected range of player.
+     */
+    public static void startWatchingInRange(ServerPlayNetworkHandler player, double radius) {
+        ElementHolderIndex.get(player.getPlayer().getServerWorld()).forEachInRange(player.getPlayer().getPos(), radius, holder -> {
+            if (holder.getAttachment() instanceof ManualAttachment) {
+                holder.startWatching(player);
+            }
+        });
+    }
+
     @Override
     public void destroy() {
         if (this.holder.getAttachment() == this) {
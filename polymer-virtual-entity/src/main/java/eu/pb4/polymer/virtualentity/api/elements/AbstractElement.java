@@ -15,6 +15,8 @@ public abstract class AbstractElement implements VirtualElement {
     @Nullable
     protected Vec3d lastSyncedPos;
     private InteractionHandler handler = InteractionHandler.EMPTY;
+    @Nullable
+    private LevelOfDetail levelOfDetail;
 
 
 
@@ -64,4 +66,13 @@ public abstract class AbstractElement implements VirtualElement {
     public void setInteractionHandler(InteractionHandler handler) {
         this.handler = handler;
     }
+
+    @Override
+    public @Nullable LevelOfDetail getLevelOfDetail() {
+        return this.levelOfDetail;
+    }
+
+    public void setLevelOfDetail(@Nullable LevelOfDetail levelOfDetail) {
+        this.levelOfDetail = levelOfDetail;
+    }
 }
@@ -1,5 +1,7 @@
 package eu.pb4.polymer.virtualentity.api.elements;
 
+import eu.pb4.polymer.virtualentity.api.animation.Animation;
+import eu.pb4.polymer.virtualentity.api.animation.AnimationPlayer;
 import eu.pb4.polymer.virtualentity.api.tracker.DisplayTrackedData;
 import net.minecraft.entity.EntityDimensions;
 import net.minecraft.entity.EntityType;
@@ -13,9 +15,43 @@ import org.joml.*;
 
 @SuppressWarnings("ConstantConditions")
 public abstract class DisplayElement extends GenericEntityElement {
+    private static final ThreadLocal<Decomposition> DECOMPOSITION = ThreadLocal.withInitial(Decomposition::new);
+    @Nullable
+    private AnimationPlayer animationPlayer;
+
     @Override
     protected abstract EntityType<? extends DisplayEntity> getEntityType();
 
+    @Override
+    public void tick() {
+        if (this.animationPlayer != null) {
+            this.animationPlayer.tick(this);
+        }
+        super.tick();
+    }
+
+    public void playAnimation(Animation animation) {
+        if (this.animationPlayer == null) {
+            this.animationPlayer = new AnimationPlayer();
+        }
+        this.animationPlayer.play(animation);
+    }
+
+    public void stopAnimation() {
+        if (this.animationPlayer != null) {
+            this.animationPlayer.stop();
+        }
+    }
+
+    public boolean isAnimationPlaying() {
+        return this.animationPlayer != null && this.animationPlayer.isPlaying();
+    }
+
+    @Nullable
+    public AnimationPlayer getAnimationPlayer() {
+        return this.animationPlayer;
+    }
+
     public void setTransformation(AffineTransformation transformation) {
         this.dataTracker.set(DisplayTrackedData.TRANSLATION, transformation.getTranslation());
         this.dataTracker.set(DisplayTrackedData.LEFT_ROTATION, transformation.getLeftRotation());
@@ -24,20 +60,42 @@ public abstract class DisplayElement extends GenericEntityElement {
     }
 
     public void setTransformation(Matrix4f matrix) {
-        float f = 1.0F / matrix.m33();
-        var triple = MatrixUtil.svdDecompose((new Matrix3f(matrix)).scale(f));
-        this.dataTracker.set(DisplayTrackedData.TRANSLATION, matrix.getTranslation(new Vector3f()));
-        this.dataTracker.set(DisplayTrackedData.LEFT_ROTATION, new Quaternionf(triple.getLeft()));
-        this.dataTracker.set(DisplayTrackedData.SCALE, new Vector3f(triple.getMiddle()));
-        this.dataTracker.set(DisplayTrackedData.RIGHT_ROTATION, new Quaternionf(triple.getRight()));
+        var decomposition = DECOMPOSITION.get();
+        matrix.getTranslation(decomposition.translation);
+        if ((matrix.properties() & Matrix4fc.PROPERTY_TRANSLATION) != 0) {
+            decomposition.setTranslationOnly();
+        } else {
+            decomposition.matrix.set(matrix);
+            if (matrix.m33() != 1) {
+                decomposition.matrix.scale(1.0F / matrix.m33());
+            }
+            decomposition.decompose();
+        }
+        this.setDecomposedTransformation(decomposition);
     }
 
     public void setTransformation(Matrix4x3f matrix) {
-        var triple = MatrixUtil.svdDecompose((new Matrix3f()).set(matrix));
-        this.dataTracker.set(DisplayTrackedData.TRANSLATION, matrix.getTranslation(new Vector3f()));
-        this.dataTracker.set(DisplayTrackedData.LEFT_ROTATION, new Quaternionf(triple.getLeft()));
-        this.dataTracker.set(DisplayTrackedData.SCALE, new Vector3f(triple.getMiddle()));
-        this.dataTracker.set(DisplayTrackedData.RIGHT_ROTATION, new Quaternionf(triple.getRight()));
+        var decomposition = DECOMPOSITION.get();
+        matrix.getTranslation(decomposition.translation);
+        decomposition.matrix.set(matrix);
+        decomposition.decompose();
+        this.setDecomposedTransformation(decomposition);
+    }
+
+    private void setDecomposedTransformation(Decomposition decomposition) {
+        // Values are only copied out of shared buffers if they differ from current ones
+        if (!decomposition.translation.equals(this.dataTracker.get(DisplayTrackedData.TRANSLATION))) {
+            this.dataTracker.set(DisplayTrackedData.TRANSLATION, new Vector3f(decomposition.translation));
+        }
+        if (!decomposition.leftRotation.equals(this.dataTracker.get(DisplayTrackedData.LEFT_ROTATION))) {
+            this.dataTracker.set(DisplayTrackedData.LEFT_ROTATION, new Quaternionf(decomposition.leftRotation));
+        }
+        if (!decomposition.scale.equals(this.dataTracker.get(DisplayTrackedData.SCALE))) {
+            this.dataTracker.set(DisplayTrackedData.SCALE, new Vector3f(decomposition.scale));
+        }
+        if (!decomposition.rightRotation.equals(this.dataTracker.get(DisplayTrackedData.RIGHT_ROTATION))) {
+            this.dataTracker.set(DisplayTrackedData.RIGHT_ROTATION, new Quaternionf(decomposition.rightRotation));
+        }
     }
 
     public boolean isTransformationDirty() {
@@ -181,6 +239,46 @@ public abstract class DisplayElement extends GenericEntityElement {
         this.setDisplayHeight(dimensions.height());
     }
 
+    private static final class Decomposition {
+        private static final float EPSILON = 1.0E-5F;
+
+        private final Matrix3f matrix = new Matrix3f();
+        private final Vector3f translation = new Vector3f();
+        private final Quaternionf leftRotation = new Quaternionf();
+        private final Vector3f scale = new Vector3f();
+        private final Quaternionf rightRotation = new Quaternionf();
+
+        private void setTranslationOnly() {
+            this.leftRotation.identity();
+            this.scale.set(1);
+            this.rightRotation.identity();
+        }
+
+        private void decompose() {
+            var m = this.matrix;
+            float x = m.m00() * m.m00() + m.m01() * m.m01() + m.m02() * m.m02();
+            float y = m.m10() * m.m10() + m.m11() * m.m11() + m.m12() * m.m12();
+            float z = m.m20() * m.m20() + m.m21() * m.m21() + m.m22() * m.m22();
+            float xy = m.m00() * m.m10() + m.m01() * m.m11() + m.m02() * m.m12();
+            float xz = m.m00() * m.m20() + m.m01() * m.m21() + m.m02() * m.m22();
+            float yz = m.m10() * m.m20() + m.m11() * m.m21() + m.m12() * m.m22();
+
+            // Rotation + scale matrices have orthogonal columns, so there is no need for full SVD
+            if (x > EPSILON && y > EPSILON && z > EPSILON
+                    && xy * xy <= EPSILON * x * y && xz * xz <= EPSILON * x * z && yz * yz <= EPSILON * y * z
+                    && m.determinant() > 0) {
+                this.scale.set((float) Math.sqrt(x), (float) Math.sqrt(y), (float) Math.sqrt(z));
+                this.leftRotation.setFromUnnormalized(m);
+                this.rightRotation.identity();
+            } else {
+                var triple = MatrixUtil.svdDecompose(m);
+                this.leftRotation.set(triple.getLeft());
+                this.scale.set(triple.getMiddle());
+                this.rightRotation.set(triple.getRight());
+            }
+        }
+    }
+
     public int getGlowColorOverride() {
         return this.dataTracker.get(DisplayTrackedData.GLOW_COLOR_OVERRIDE);
     }
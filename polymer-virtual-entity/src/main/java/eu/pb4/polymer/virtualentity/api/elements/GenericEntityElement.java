@@ -35,6 +35,7 @@ public abstract class GenericEntityElement extends AbstractElement {
     private boolean isRotationDirty;
     private boolean sendPositionUpdates = true;
     private boolean instantPositionUpdates = false;
+    private boolean disposed;
     protected DataTrackerLike createDataTracker() {
         return new SimpleDataTracker(this.getEntityType());
     }
@@ -101,6 +102,14 @@ public abstract class GenericEntityElement extends AbstractElement {
         return this.id;
     }
 
+    @Override
+    public void dispose() {
+        if (!this.disposed) {
+            this.disposed = true;
+            VirtualEntityUtils.releaseEntityId(this.id);
+        }
+    }
+
     protected abstract EntityType<? extends Entity> getEntityType();
 
     @Override
@@ -136,6 +145,13 @@ public abstract class GenericEntityElement extends AbstractElement {
     public void stopWatching(ServerPlayerEntity player, Consumer<Packet<ClientPlayPacketListener>> packetConsumer) {
     }
 
+    @Override
+    public void resyncState(ServerPlayerEntity player, Consumer<Packet<ClientPlayPacketListener>> packetConsumer) {
+        var pos = this.lastSyncedPos != null ? this.lastSyncedPos : this.getCurrentPos();
+        packetConsumer.accept(new EntityPositionSyncS2CPacket(this.id, new PlayerPosition(pos, Vec3d.ZERO, this.yaw, this.pitch), false));
+        this.sendChangedTrackerEntries(player, packetConsumer);
+    }
+
     @Override
     public void tick() {
         this.sendTrackerUpdates();
@@ -163,7 +179,7 @@ public abstract class GenericEntityElement extends AbstractElement {
         }
 
         if (packet != null) {
-            this.getHolder().sendPacket(packet);
+            this.getHolder().sendPacket(this, packet);
             if (!(packet instanceof EntityS2CPacket.Rotate)) {
                 this.lastSyncedPos = pos;
             }
@@ -175,7 +191,7 @@ public abstract class GenericEntityElement extends AbstractElement {
         if (this.dataTracker.isDirty()) {
             var dirty = this.dataTracker.getDirtyEntries();
             if (dirty != null) {
-                this.getHolder().sendPacket(new EntityTrackerUpdateS2CPacket(this.id, dirty));
+                this.getHolder().sendPacket(this, new EntityTrackerUpdateS2CPacket(this.id, dirty));
             }
         }
     }
@@ -184,7 +200,7 @@ public abstract class GenericEntityElement extends AbstractElement {
         if (this.isRotationDirty) {
             var i = MathHelper.floor(yaw * 256.0F / 360.0F);
             var j = MathHelper.floor(pitch * 256.0F / 360.0F);
-            this.getHolder().sendPacket(new EntityS2CPacket.Rotate(id, (byte) i, (byte) j, false));
+            this.getHolder().sendPacket(this, new EntityS2CPacket.Rotate(id, (byte) i, (byte) j, false));
             this.isRotationDirty = false;
         }
     }
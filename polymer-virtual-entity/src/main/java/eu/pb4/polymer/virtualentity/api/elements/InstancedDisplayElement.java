@@ -0,0 +1,46 @@
+package eu.pb4.polymer.virtualentity.api.elements;
+
+import eu.pb4.polymer.virtualentity.api.tracker.DataTrackerLike;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.decoration.DisplayEntity;
+
+/**
+ * Display element created from {@link InstancedElement.Template} of a display element, sharing its tracked data until modified.
+ * Unlike {@link InstancedElement}, it keeps transformations, interpolation and animations of {@link DisplayElement}.
+ */
+public class InstancedDisplayElement extends DisplayElement {
+    private final InstancedElement.Template template;
+
+    public InstancedDisplayElement(InstancedElement.Template template) {
+        this(template, InstancedElement.hackyHack(validate(template)));
+        InstancedElement.LOCAL_TEMPLATE.remove();
+    }
+
+    private InstancedDisplayElement(InstancedElement.Template template, Object hack) {
+        super();
+        this.template = template;
+        template.apply(this);
+    }
+
+    private static InstancedElement.Template validate(InstancedElement.Template template) {
+        if (!template.isDisplay()) {
+            throw new IllegalArgumentException("Template of " + template.getEntityType() + " isn't a display element!");
+        }
+        return template;
+    }
+
+    @Override
+    protected DataTrackerLike createDataTracker() {
+        return (this.template != null ? this.template : InstancedElement.LOCAL_TEMPLATE.get()).createDataTracker();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected EntityType<? extends DisplayEntity> getEntityType() {
+        return (EntityType<? extends DisplayEntity>) this.template.getEntityType();
+    }
+
+    public InstancedElement.Template getTemplate() {
+        return this.template;
+    }
+}
@@ -0,0 +1,113 @@
+package eu.pb4.polymer.virtualentity.api.elements;
+
+import eu.pb4.polymer.virtualentity.api.tracker.DataTrackerLike;
+import eu.pb4.polymer.virtualentity.api.tracker.TemplateDataTracker;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Element created from {@link Template}, sharing its tracked data until modified.
+ * Per instance changes can be done through {@link #getDataTracker()}.
+ * Templates only hold entity type and data, so behaviour of source element's class (ticking, interactions, etc.) isn't carried over.
+ * Templates of display elements create {@link InstancedDisplayElement} with {@link Template#createElement()} instead.
+ */
+public class InstancedElement extends GenericEntityElement {
+    static final ThreadLocal<Template> LOCAL_TEMPLATE = new ThreadLocal<>();
+    private final Template template;
+
+    public InstancedElement(Template template) {
+        this(template, hackyHack(template));
+        LOCAL_TEMPLATE.remove();
+    }
+
+    static Object hackyHack(Template template) {
+        LOCAL_TEMPLATE.set(template);
+        return template;
+    }
+
+    private InstancedElement(Template template, Object hack) {
+        super();
+        this.template = template;
+        template.apply(this);
+    }
+
+    @Override
+    protected DataTrackerLike createDataTracker() {
+        return (this.template != null ? this.template : LOCAL_TEMPLATE.get()).createDataTracker();
+    }
+
+    @Override
+    protected EntityType<? extends Entity> getEntityType() {
+        return this.template.type;
+    }
+
+    public Template getTemplate() {
+        return this.template;
+    }
+
+    public static final class Template {
+        private final EntityType<? extends Entity> type;
+        private final TemplateDataTracker.Base tracker;
+        private final Vec3d offset;
+        private final float pitch;
+        private final float yaw;
+        private final boolean sendPositionUpdates;
+        @Nullable
+        private final LevelOfDetail levelOfDetail;
+        private final boolean display;
+
+        private Template(GenericEntityElement element) {
+            this.type = element.getEntityType();
+            this.tracker = TemplateDataTracker.Base.of(this.type, element.getDataTracker());
+            this.offset = element.getOffset();
+            this.pitch = element.getPitch();
+            this.yaw = element.getYaw();
+            this.sendPositionUpdates = element.isSendingPositionUpdates();
+            this.levelOfDetail = element.getLevelOfDetail();
+            this.display = element instanceof DisplayElement;
+        }
+
+        /**
+         * Copies entity type, tracked data, offset, rotation and level of detail of element.
+         * Later changes to element don't affect the template. Instances are {@link InstancedElement} or, for display elements
+         * created with {@link #createElement()}, {@link InstancedDisplayElement}.
+         */
+        public static Template of(GenericEntityElement element) {
+            return new Template(element);
+        }
+
+        public InstancedElement create() {
+            return new InstancedElement(this);
+        }
+
+        /**
+         * Creates {@link InstancedDisplayElement} if template was made from display element, otherwise {@link InstancedElement}.
+         */
+        public GenericEntityElement createElement() {
+            return this.display ? new InstancedDisplayElement(this) : new InstancedElement(this);
+        }
+
+        public boolean isDisplay() {
+            return this.display;
+        }
+
+        TemplateDataTracker createDataTracker() {
+            return new TemplateDataTracker(this.tracker);
+        }
+
+        void apply(GenericEntityElement element) {
+            element.setOffset(this.offset);
+            if (this.pitch != 0 || this.yaw != 0) {
+                element.setRotation(this.pitch, this.yaw);
+            }
+            element.setSendPositionUpdates(this.sendPositionUpdates);
+            element.setLevelOfDetail(this.levelOfDetail);
+        }
+
+        public EntityType<? extends Entity> getEntityType() {
+            return this.type;
+        }
+    }
+}
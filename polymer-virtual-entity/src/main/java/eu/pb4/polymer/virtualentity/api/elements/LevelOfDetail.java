@@ -0,0 +1,72 @@
+package eu.pb4.polymer.virtualentity.api.elements;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Distance bands used by {@link eu.pb4.polymer.virtualentity.api.ElementHolder} to lower update rate of element
+ * for far away players. Players further away than last band don't see the element at all.
+ */
+public final class LevelOfDetail {
+    public static final int CULLED = -1;
+
+    private final double[] maxDistanceSquared;
+    private final int[] updateInterval;
+
+    private LevelOfDetail(Band[] bands) {
+        bands = bands.clone();
+        Arrays.sort(bands, Comparator.comparingDouble(Band::maxDistance));
+        this.maxDistanceSquared = new double[bands.length];
+        this.updateInterval = new int[bands.length];
+
+        for (int i = 0; i < bands.length; i++) {
+            this.maxDistanceSquared[i] = bands[i].maxDistance * bands[i].maxDistance;
+            this.updateInterval[i] = Math.max(bands[i].updateInterval, 1);
+        }
+    }
+
+    public static LevelOfDetail of(Band... bands) {
+        if (bands.length == 0) {
+            throw new IllegalArgumentException("Level of detail requires at least one band!");
+        }
+        return new LevelOfDetail(bands);
+    }
+
+    /**
+     * Shows element with full update rate up to selected distance and hides it beyond it.
+     */
+    public static LevelOfDetail cullAfter(double distance) {
+        return of(Band.full(distance));
+    }
+
+    public int getBand(double distanceSquared) {
+        for (int i = 0; i < this.maxDistanceSquared.length; i++) {
+            if (distanceSquared <= this.maxDistanceSquared[i]) {
+                return i;
+            }
+        }
+        return CULLED;
+    }
+
+    public int getUpdateInterval(int band) {
+        return band >= 0 && band < this.updateInterval.length ? this.updateInterval[band] : 1;
+    }
+
+    public int bandCount() {
+        return this.updateInterval.length;
+    }
+
+    /**
+     * @param maxDistance maximum distance (in blocks) from holder's position
+     * @param updateInterval amount of ticks between updates sent to players in this band
+     */
+    public record Band(double maxDistance, int updateInterval) {
+        public static Band full(double maxDistance) {
+            return new Band(maxDistance, 1);
+        }
+
+        public static Band reduced(double maxDistance, int updateInterval) {
+            return new Band(maxDistance, updateInterval);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package eu.pb4.polymer.virtualentity.api.elements;
 
 import eu.pb4.polymer.virtualentity.api.tracker.DisplayTrackedData;
+import eu.pb4.polymer.virtualentity.impl.CachedText;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.decoration.DisplayEntity;
 import net.minecraft.text.Text;
@@ -14,11 +15,14 @@ public class TextDisplayElement extends DisplayElement {
     }
 
     public Text getText() {
-        return this.dataTracker.get(DisplayTrackedData.Text.TEXT);
+        return CachedText.unwrap(this.dataTracker.get(DisplayTrackedData.Text.TEXT));
     }
 
+    /**
+     * Encoded form of text is cached and reused for all players (or all players using the same language, if it contains translations).
+     */
     public void setText(Text text) {
-        this.dataTracker.set(DisplayTrackedData.Text.TEXT, text);
+        this.dataTracker.set(DisplayTrackedData.Text.TEXT, CachedText.wrap(text));
     }
 
     public int getLineWidth() {
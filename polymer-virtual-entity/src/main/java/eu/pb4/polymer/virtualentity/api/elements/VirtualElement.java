@@ -6,6 +6,7 @@ import net.minecraft.entity.Entity;
 import net.minecraft.network.listener.ClientPlayPacketListener;
 import net.minecraft.network.packet.Packet;
 import net.minecraft.network.packet.c2s.play.PlayerInteractEntityC2SPacket;
+import net.minecraft.network.packet.s2c.play.EntitiesDestroyS2CPacket;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Hand;
 import net.minecraft.util.math.Vec3d;
@@ -54,6 +55,28 @@ public interface VirtualElement {
     default void setInitialPosition(Vec3d newPos) {
     }
 
+    @Nullable
+    default LevelOfDetail getLevelOfDetail() {
+        return null;
+    }
+
+    /**
+     * Called for players with reduced update rate, after some updates were skipped for them.
+     * It should bring client's state of this element in sync with server.
+     */
+    default void resyncState(ServerPlayerEntity player, Consumer<Packet<ClientPlayPacketListener>> packetConsumer) {
+        this.stopWatching(player, packetConsumer);
+        packetConsumer.accept(new EntitiesDestroyS2CPacket(this.getEntityIds()));
+        this.startWatching(player, packetConsumer);
+    }
+
+    /**
+     * Called once element is permanently removed, after it stopped being watched by all players.
+     * It frees resources used by it, like entity ids, so element shouldn't be used afterwards.
+     */
+    default void dispose() {
+    }
+
     interface InteractionHandler {
         InteractionHandler EMPTY = new InteractionHandler() {};
 
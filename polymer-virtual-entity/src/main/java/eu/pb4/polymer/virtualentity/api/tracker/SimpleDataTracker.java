@@ -9,11 +9,16 @@ import org.apache.commons.lang3.ObjectUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class SimpleDataTracker implements DataTrackerLike {
     private final Entry<?>[] entries;
+    private final long[] dirtyMask;
     private boolean dirty;
+    @Nullable
+    private List<DataTracker.SerializedEntry<?>> changedEntries;
+    private boolean changedEntriesValid;
 
     @SuppressWarnings("rawtypes")
     public SimpleDataTracker(EntityType<?> baseEntity) {
@@ -25,6 +30,7 @@ public class SimpleDataTracker implements DataTrackerLike {
             //noinspection unchecked
             this.entries[i] = new Entry(x.getData(), x.get());
         }
+        this.dirtyMask = new long[(entries.length + 63) >> 6];
     }
 
     @Override
@@ -35,7 +41,7 @@ public class SimpleDataTracker implements DataTrackerLike {
 
     @Nullable
     public <T> Entry<T> getEntry(TrackedData<T> data) {
-        if (data.id() > this.entries.length) {
+        if (data.id() >= this.entries.length) {
             return null;
         }
 
@@ -60,8 +66,9 @@ public class SimpleDataTracker implements DataTrackerLike {
         var entry = getEntry(key);
         if (entry != null && (forceDirty || ObjectUtils.notEqual(value, entry.get()))) {
             entry.set(value);
-            entry.setDirty(true);
-            this.dirty = true;
+            this.markDirty(entry, true);
+            this.changedEntriesValid = false;
+            this.changedEntries = null;
         }
     }
 
@@ -69,8 +76,18 @@ public class SimpleDataTracker implements DataTrackerLike {
     public <T> void setDirty(TrackedData<T> key, boolean isDirty) {
         var entry = getEntry(key);
         if (entry != null) {
-            entry.setDirty(isDirty);
-            this.dirty |= isDirty;
+            this.markDirty(entry, isDirty);
+        }
+    }
+
+    private void markDirty(Entry<?> entry, boolean isDirty) {
+        entry.setDirty(isDirty);
+        var id = entry.data.id();
+        if (isDirty) {
+            this.dirtyMask[id >> 6] |= 1L << id;
+            this.dirty = true;
+        } else {
+            this.dirtyMask[id >> 6] &= ~(1L << id);
         }
     }
 
@@ -84,14 +101,21 @@ public class SimpleDataTracker implements DataTrackerLike {
     public List<DataTracker.SerializedEntry<?>> getDirtyEntries() {
         List<DataTracker.SerializedEntry<?>> list = null;
         if (this.dirty) {
-            for (int i = 0; i < this.entries.length; i++) {
-                var entry = this.entries[i];
-                if (entry.isDirty()) {
-                    entry.setDirty(false);
-                    if (list == null) {
-                        list = new ArrayList<>();
-                    }
+            for (int i = 0; i < this.dirtyMask.length; i++) {
+                var mask = this.dirtyMask[i];
+                if (mask == 0) {
+                    continue;
+                }
+                this.dirtyMask[i] = 0;
 
+                if (list == null) {
+                    list = new ArrayList<>(Long.bitCount(mask));
+                }
+
+                while (mask != 0) {
+                    var entry = this.entries[(i << 6) + Long.numberOfTrailingZeros(mask)];
+                    mask &= mask - 1;
+                    entry.setDirty(false);
                     list.add(entry.toSerialized());
                 }
             }
@@ -104,6 +128,15 @@ public class SimpleDataTracker implements DataTrackerLike {
     @Override
     @Nullable
     public List<DataTracker.SerializedEntry<?>> getChangedEntries() {
+        if (!this.changedEntriesValid) {
+            this.changedEntries = this.collectChangedEntries();
+            this.changedEntriesValid = true;
+        }
+        return this.changedEntries;
+    }
+
+    @Nullable
+    private List<DataTracker.SerializedEntry<?>> collectChangedEntries() {
         List<DataTracker.SerializedEntry<?>> list = null;
         for (int i = 0; i < this.entries.length; i++) {
             var entry = this.entries[i];
@@ -116,7 +149,7 @@ public class SimpleDataTracker implements DataTrackerLike {
             }
         }
 
-        return list;
+        return list != null ? Collections.unmodifiableList(list) : null;
     }
 
     public static class Entry<T> {
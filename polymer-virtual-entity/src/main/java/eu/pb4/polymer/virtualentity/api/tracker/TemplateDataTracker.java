@@ -0,0 +1,216 @@
+package eu.pb4.polymer.virtualentity.api.tracker;
+
+import eu.pb4.polymer.common.impl.entity.InternalEntityHelpers;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.data.DataTracker;
+import net.minecraft.entity.data.TrackedData;
+import org.apache.commons.lang3.ObjectUtils;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data tracker reading its values from shared {@link Base}. Values are only copied into the instance once one of them is modified,
+ * until then changed entries are shared between all trackers using the same base.
+ * Mutable values (item stacks, vectors, quaternions) are returned as copies, so they can't be modified in place.
+ */
+public class TemplateDataTracker implements DataTrackerLike {
+    private final Base base;
+    @Nullable
+    private Object[] values;
+    @Nullable
+    private long[] dirtyMask;
+    private boolean dirty;
+    @Nullable
+    private List<DataTracker.SerializedEntry<?>> changedEntries;
+    private boolean changedEntriesValid;
+
+    public TemplateDataTracker(Base base) {
+        this.base = base;
+        this.changedEntries = base.changedEntries;
+        this.changedEntriesValid = true;
+    }
+
+    public Base getBase() {
+        return this.base;
+    }
+
+    /**
+     * Returns true if any value differs from shared base.
+     */
+    public boolean hasOverrides() {
+        return this.values != null;
+    }
+
+    @Override
+    public <T> T get(TrackedData<T> data) {
+        if (!this.base.isValid(data)) {
+            return null;
+        }
+        //noinspection unchecked
+        return (T) Base.copyValue(data, this.values != null ? this.values[data.id()] : this.base.values[data.id()]);
+    }
+
+    @Override
+    public <T> void set(TrackedData<T> key, T value, boolean forceDirty) {
+        if (!this.base.isValid(key)) {
+            return;
+        }
+        var values = this.values != null ? this.values : this.base.values;
+        if (forceDirty || ObjectUtils.notEqual(value, values[key.id()])) {
+            if (this.values == null) {
+                this.values = this.base.values.clone();
+            }
+            this.values[key.id()] = value;
+            this.markDirty(key.id(), true);
+            this.changedEntriesValid = false;
+            this.changedEntries = null;
+        }
+    }
+
+    @Override
+    public <T> void setDirty(TrackedData<T> key, boolean isDirty) {
+        if (this.base.isValid(key)) {
+            this.markDirty(key.id(), isDirty);
+        }
+    }
+
+    private void markDirty(int id, boolean isDirty) {
+        if (isDirty) {
+            if (this.dirtyMask == null) {
+                this.dirtyMask = new long[(this.base.values.length + 63) >> 6];
+            }
+            this.dirtyMask[id >> 6] |= 1L << id;
+            this.dirty = true;
+        } else if (this.dirtyMask != null) {
+            this.dirtyMask[id >> 6] &= ~(1L << id);
+        }
+    }
+
+    @Override
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    @Override
+    public boolean isDirty(TrackedData<?> key) {
+        return this.dirtyMask != null && this.base.isValid(key) && (this.dirtyMask[key.id() >> 6] & (1L << key.id())) != 0;
+    }
+
+    @Override
+    @Nullable
+    public List<DataTracker.SerializedEntry<?>> getDirtyEntries() {
+        List<DataTracker.SerializedEntry<?>> list = null;
+        if (this.dirty && this.dirtyMask != null) {
+            var values = this.values != null ? this.values : this.base.values;
+            for (int i = 0; i < this.dirtyMask.length; i++) {
+                var mask = this.dirtyMask[i];
+                if (mask == 0) {
+                    continue;
+                }
+                this.dirtyMask[i] = 0;
+
+                if (list == null) {
+                    list = new ArrayList<>(Long.bitCount(mask));
+                }
+
+                while (mask != 0) {
+                    var id = (i << 6) + Long.numberOfTrailingZeros(mask);
+                    mask &= mask - 1;
+                    list.add(Base.serialize(this.base.data[id], values[id]));
+                }
+            }
+        }
+
+        this.dirty = false;
+        return list;
+    }
+
+    @Override
+    @Nullable
+    public List<DataTracker.SerializedEntry<?>> getChangedEntries() {
+        if (!this.changedEntriesValid) {
+            this.changedEntries = this.values != null ? this.base.collectChangedEntries(this.values) : this.base.changedEntries;
+            this.changedEntriesValid = true;
+        }
+        return this.changedEntries;
+    }
+
+    /**
+     * Immutable tracked values shared between trackers. Changed entries are computed once, at creation.
+     */
+    public static final class Base {
+        private final TrackedData<?>[] data;
+        private final Object[] defaultValues;
+        private final Object[] values;
+        @Nullable
+        private final List<DataTracker.SerializedEntry<?>> changedEntries;
+
+        private Base(TrackedData<?>[] data, Object[] defaultValues, Object[] values) {
+            this.data = data;
+            this.defaultValues = defaultValues;
+            this.values = values;
+            this.changedEntries = this.collectChangedEntries(values);
+        }
+
+        /**
+         * Copies current values of tracker for selected entity type. Mutable values (item stacks, vectors, quaternions) are copied too,
+         * so later changes to them don't leak into the base.
+         */
+        public static Base of(EntityType<?> type, DataTrackerLike tracker) {
+            var entries = InternalEntityHelpers.getExampleTrackedDataOfEntityType(type);
+            var data = new TrackedData<?>[entries.length];
+            var defaultValues = new Object[entries.length];
+            var values = new Object[entries.length];
+
+            for (int i = 0; i < entries.length; i++) {
+                var entry = entries[i];
+                data[i] = entry.getData();
+                defaultValues[i] = copyValue(entry.getData(), entry.get());
+                var value = tracker.get(entry.getData());
+                values[i] = copyValue(entry.getData(), value != null ? value : entry.get());
+            }
+
+            return new Base(data, defaultValues, values);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Object copyValue(TrackedData<T> data, Object value) {
+            if (value instanceof Vector3f vector) {
+                return new Vector3f(vector);
+            } else if (value instanceof Quaternionf quaternion) {
+                return new Quaternionf(quaternion);
+            }
+            return data.dataType().copy((T) value);
+        }
+
+        private boolean isValid(TrackedData<?> data) {
+            return data.id() < this.data.length && this.data[data.id()] == data;
+        }
+
+        @Nullable
+        private List<DataTracker.SerializedEntry<?>> collectChangedEntries(Object[] values) {
+            List<DataTracker.SerializedEntry<?>> list = null;
+            for (int i = 0; i < values.length; i++) {
+                if (!this.defaultValues[i].equals(values[i])) {
+                    if (list == null) {
+                        list = new ArrayList<>();
+                    }
+
+                    list.add(serialize(this.data[i], values[i]));
+                }
+            }
+
+            return list != null ? Collections.unmodifiableList(list) : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> DataTracker.SerializedEntry<T> serialize(TrackedData<T> data, Object value) {
+            return DataTracker.SerializedEntry.of(data, (T) value);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package eu.pb4.polymer.virtualentity.impl;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.text.*;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.packettweaker.PacketContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Text wrapper stored in tracked data of text displays, keeping its encoded form between packets and players.
+ */
+@ApiStatus.Internal
+public final class CachedText implements Text {
+    private final Text text;
+    private final Mode mode;
+    @Nullable
+    private volatile byte[] encoded;
+    @Nullable
+    private Map<String, byte[]> encodedPerLocale;
+
+    private CachedText(Text text) {
+        this.text = text;
+        this.mode = getMode(text);
+        if (this.mode == Mode.PER_LOCALE) {
+            this.encodedPerLocale = new ConcurrentHashMap<>();
+        }
+    }
+
+    public static Text wrap(Text text) {
+        return text instanceof CachedText ? text : new CachedText(text);
+    }
+
+    public static Text unwrap(Text text) {
+        return text instanceof CachedText cachedText ? cachedText.text : text;
+    }
+
+    /**
+     * Writes encoded text to buffer, encoding it with selected writer if it isn't cached yet.
+     */
+    public void write(RegistryByteBuf buf, BiConsumer<RegistryByteBuf, Text> writer) {
+        if (this.mode == Mode.UNCACHED) {
+            writer.accept(buf, this.text);
+            return;
+        }
+
+        byte[] bytes;
+        if (this.mode == Mode.PER_LOCALE) {
+            var options = PacketContext.get().getClientOptions();
+            var locale = options != null ? options.language() : "";
+            bytes = this.encodedPerLocale.get(locale);
+            if (bytes == null) {
+                bytes = this.encode(buf, writer);
+                this.encodedPerLocale.put(locale, bytes);
+            }
+        } else {
+            bytes = this.encoded;
+            if (bytes == null) {
+                bytes = this.encode(buf, writer);
+                this.encoded = bytes;
+            }
+        }
+        buf.writeBytes(bytes);
+    }
+
+    private byte[] encode(RegistryByteBuf buf, BiConsumer<RegistryByteBuf, Text> writer) {
+        var tmp = new RegistryByteBuf(Unpooled.buffer(), buf.getRegistryManager());
+        try {
+            writer.accept(tmp, this.text);
+            return ByteBufUtil.getBytes(tmp);
+        } finally {
+            tmp.release();
+        }
+    }
+
+    private static Mode getMode(Text text) {
+        var mode = Mode.SHARED;
+        var hover = text.getStyle().getHoverEvent();
+        // Items are replaced per player
+        if (hover != null && hover.getAction() == HoverEvent.Action.SHOW_ITEM) {
+            return Mode.UNCACHED;
+        } else if (hover != null && hover.getAction() == HoverEvent.Action.SHOW_TEXT) {
+            mode = getMode(hover.getValue(HoverEvent.Action.SHOW_TEXT));
+            if (mode == Mode.UNCACHED) {
+                return mode;
+            }
+        }
+
+        if (text.getContent() instanceof TranslatableTextContent content) {
+            if (!VirtualEntityImpl.CACHE_TEXT_PER_LOCALE) {
+                return Mode.UNCACHED;
+            }
+            mode = Mode.PER_LOCALE;
+            for (var arg : content.getArgs()) {
+                if (arg instanceof Text argText && getMode(argText) == Mode.UNCACHED) {
+                    return Mode.UNCACHED;
+                }
+            }
+        }
+
+        for (var sibling : text.getSiblings()) {
+            var siblingMode = getMode(sibling);
+            if (siblingMode == Mode.UNCACHED) {
+                return Mode.UNCACHED;
+            } else if (siblingMode == Mode.PER_LOCALE) {
+                mode = Mode.PER_LOCALE;
+            }
+        }
+        return mode;
+    }
+
+    @Override
+    public Style getStyle() {
+        return this.text.getStyle();
+    }
+
+    @Override
+    public TextContent getContent() {
+        return this.text.getContent();
+    }
+
+    @Override
+    public List<Text> getSiblings() {
+        return this.text.getSiblings();
+    }
+
+    @Override
+    public OrderedText asOrderedText() {
+        return this.text.asOrderedText();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof CachedText cachedText && this.text.equals(cachedText.text));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.text.toString();
+    }
+
+    private enum Mode {
+        SHARED,
+        PER_LOCALE,
+        UNCACHED
+    }
+}
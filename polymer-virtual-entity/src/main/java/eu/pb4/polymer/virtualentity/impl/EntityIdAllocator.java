@@ -0,0 +1,126 @@
+package eu.pb4.polymer.virtualentity.impl;
+
+import eu.pb4.polymer.virtualentity.mixin.accessors.EntityAccessor;
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out entity ids from ranges reserved in vanilla's id counter, so it isn't touched for every created element.
+ * Released ids are reused only after a delay, letting clients process removal of previous entity first.
+ * Releasing ids outside of reserved ranges or ones already waiting for reuse is ignored.
+ */
+@ApiStatus.Internal
+public final class EntityIdAllocator {
+    private static final int RANGE_SIZE = 256;
+    private static final ThreadLocal<Range> RANGE = ThreadLocal.withInitial(Range::new);
+
+    private static final IntArrayFIFOQueue RELEASED = new IntArrayFIFOQueue();
+    private static final LongArrayFIFOQueue RELEASE_TIME = new LongArrayFIFOQueue();
+    private static final IntOpenHashSet PENDING = new IntOpenHashSet();
+    private static final LongArrayList RANGE_STARTS = new LongArrayList();
+
+    private static final LongAdder LIVE = new LongAdder();
+    private static final LongAdder RESERVED = new LongAdder();
+
+    private EntityIdAllocator() {}
+
+    public static int request() {
+        var range = RANGE.get();
+        int id;
+        if (!range.recycled.isEmpty()) {
+            id = range.recycled.popInt();
+        } else if (range.next < range.end) {
+            id = range.next++;
+        } else if (takeRecycled(range.recycled)) {
+            id = range.recycled.popInt();
+        } else {
+            var start = EntityAccessor.getCURRENT_ID().getAndAdd(RANGE_SIZE) + 1;
+            RESERVED.add(RANGE_SIZE);
+            synchronized (RELEASED) {
+                var index = RANGE_STARTS.size();
+                while (index > 0 && RANGE_STARTS.getLong(index - 1) > start) {
+                    index--;
+                }
+                RANGE_STARTS.add(index, start);
+            }
+            range.next = start + 1;
+            range.end = start + RANGE_SIZE;
+            id = start;
+        }
+        LIVE.increment();
+        return id;
+    }
+
+    public static void release(int id) {
+        var time = System.nanoTime();
+        synchronized (RELEASED) {
+            if (!isReserved(id)) {
+                return;
+            }
+            if (VirtualEntityImpl.ENTITY_ID_REUSE_DELAY_NANOS >= 0) {
+                if (!PENDING.add(id)) {
+                    return;
+                }
+                RELEASED.enqueue(id);
+                RELEASE_TIME.enqueue(time);
+            }
+        }
+        LIVE.decrement();
+    }
+
+    public static int getLiveCount() {
+        return LIVE.intValue();
+    }
+
+    public static int getReservedCount() {
+        return RESERVED.intValue();
+    }
+
+    public static int getPendingReleaseCount() {
+        synchronized (RELEASED) {
+            return RELEASED.size();
+        }
+    }
+
+    private static boolean takeRecycled(IntArrayList out) {
+        var threshold = System.nanoTime() - VirtualEntityImpl.ENTITY_ID_REUSE_DELAY_NANOS;
+        synchronized (RELEASED) {
+            while (!RELEASED.isEmpty() && out.size() < RANGE_SIZE && RELEASE_TIME.firstLong() - threshold <= 0) {
+                RELEASE_TIME.dequeueLong();
+                var id = RELEASED.dequeueInt();
+                PENDING.remove(id);
+                out.add(id);
+            }
+        }
+        return !out.isEmpty();
+    }
+
+    private static boolean isReserved(int id) {
+        int low = 0;
+        int high = RANGE_STARTS.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            var start = RANGE_STARTS.getLong(mid);
+            if (id < start) {
+                high = mid - 1;
+            } else if (id >= start + RANGE_SIZE) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Range {
+        private final IntArrayList recycled = new IntArrayList();
+        private int next;
+        private int end;
+    }
+}
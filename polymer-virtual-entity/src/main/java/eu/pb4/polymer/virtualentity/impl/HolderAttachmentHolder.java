@@ -15,4 +15,7 @@ public interface HolderAttachmentHolder {
         return null;
     }
     Collection<HolderAttachment> polymerVE$getHolders();
+
+    default void polymerVE$materializeDeferredHolders() {}
+    default void polymerVE$tickDeferredHolders() {}
 }
@@ -12,4 +12,7 @@ public interface HolderHolder {
     void polymer$addHolder(ElementHolder holder);
     void polymer$removeHolder(ElementHolder holder);
     Collection<ElementHolder> polymer$getHolders();
+    void polymer$updateHolderChunk(ElementHolder holder);
+    void polymer$markHolderDetached(ElementHolder holder);
+    Collection<ElementHolder> polymer$getHoldersInChunk(long chunkPos);
 }
@@ -0,0 +1,122 @@
+package eu.pb4.polymer.virtualentity.impl;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMaps;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.BundleS2CPacket;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects packets sent by element holders, instead of sending them directly to players.
+ */
+@ApiStatus.Internal
+public final class HolderPacketBuffer {
+    private static final int MAX_BUNDLE_SIZE = 4096;
+    private static final ThreadLocal<HolderPacketBuffer> CURRENT = new ThreadLocal<>();
+    private static final AtomicInteger ACTIVE = new AtomicInteger();
+
+    private final List<ServerPlayNetworkHandler> players = new ObjectArrayList<>();
+    private final List<Packet<? extends ClientPlayPacketListener>> packets = new ObjectArrayList<>();
+    private final List<Runnable> tasks = new ObjectArrayList<>();
+
+    /**
+     * Returns buffer capturing packets on current thread, if there is any.
+     */
+    @Nullable
+    public static HolderPacketBuffer get() {
+        return ACTIVE.get() != 0 ? CURRENT.get() : null;
+    }
+
+    public void capture(Runnable runnable) {
+        var previous = CURRENT.get();
+        CURRENT.set(this);
+        ACTIVE.incrementAndGet();
+        try {
+            runnable.run();
+        } finally {
+            ACTIVE.decrementAndGet();
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public void sendPacket(ServerPlayNetworkHandler player, Packet<? extends ClientPlayPacketListener> packet) {
+        this.players.add(player);
+        this.packets.add(packet);
+    }
+
+    /**
+     * Delays modification of state shared between holders until buffer is flushed.
+     */
+    public void runAfter(Runnable runnable) {
+        this.tasks.add(runnable);
+    }
+
+    public boolean isEmpty() {
+        return this.packets.isEmpty() && this.tasks.isEmpty();
+    }
+
+    /**
+     * Runs delayed tasks and sends packets in order they were collected.
+     */
+    public void flush() {
+        this.runTasks();
+        for (int i = 0; i < this.packets.size(); i++) {
+            this.players.get(i).sendPacket(this.packets.get(i));
+        }
+        this.players.clear();
+        this.packets.clear();
+    }
+
+    /**
+     * Runs delayed tasks and sends collected packets as a single bundle per player.
+     */
+    public void flushBundled() {
+        this.runTasks();
+        var perPlayer = new Reference2ObjectLinkedOpenHashMap<ServerPlayNetworkHandler, List<Packet<? super ClientPlayPacketListener>>>();
+        for (int i = 0; i < this.packets.size(); i++) {
+            var list = perPlayer.computeIfAbsent(this.players.get(i), x -> new ArrayList<>());
+            //noinspection unchecked
+            var packet = (Packet<? super ClientPlayPacketListener>) (Packet<?>) this.packets.get(i);
+            if (packet instanceof BundleS2CPacket bundle) {
+                for (var subPacket : bundle.getPackets()) {
+                    list.add(subPacket);
+                }
+            } else {
+                list.add(packet);
+            }
+        }
+        this.players.clear();
+        this.packets.clear();
+
+        for (var entry : Reference2ObjectMaps.fastIterable(perPlayer)) {
+            var player = entry.getKey();
+            var list = entry.getValue();
+            if (list.size() == 1) {
+                player.sendPacket(list.get(0));
+                continue;
+            }
+            for (int i = 0; i < list.size(); i += MAX_BUNDLE_SIZE) {
+                player.sendPacket(new BundleS2CPacket(list.subList(i, Math.min(i + MAX_BUNDLE_SIZE, list.size()))));
+            }
+        }
+    }
+
+    private void runTasks() {
+        for (int i = 0; i < this.tasks.size(); i++) {
+            this.tasks.get(i).run();
+        }
+        this.tasks.clear();
+    }
+}
@@ -0,0 +1,71 @@
+package eu.pb4.polymer.virtualentity.impl;
+
+import eu.pb4.polymer.common.impl.CommonImpl;
+import eu.pb4.polymer.common.impl.CompatStatus;
+import eu.pb4.polymer.virtualentity.api.attachment.HolderAttachment;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+@ApiStatus.Internal
+public final class ParallelHolderTicker {
+    @Nullable
+    private static ForkJoinPool pool;
+
+    private ParallelHolderTicker() {}
+
+    public static boolean isEnabled() {
+        return VirtualEntityImpl.PARALLEL_HOLDER_TICKING_THREADS > 0 && !CompatStatus.IMMERSIVE_PORTALS;
+    }
+
+    /**
+     * Ticks selected attachments on worker threads. Packets and shared state updates are buffered per attachment
+     * and applied on calling thread afterwards, in the same order as attachments were provided.
+     * Failing attachments are logged, with everything they collected before failing still being flushed.
+     */
+    public static void tick(List<HolderAttachment> attachments) {
+        if (attachments.size() < VirtualEntityImpl.PARALLEL_HOLDER_TICKING_MIN_HOLDERS) {
+            for (int i = 0; i < attachments.size(); i++) {
+                attachments.get(i).tick();
+            }
+            return;
+        }
+
+        var buffers = new HolderPacketBuffer[attachments.size()];
+        getPool().submit(() -> IntStream.range(0, buffers.length).parallel().forEach(i -> {
+            var buffer = new HolderPacketBuffer();
+            buffers[i] = buffer;
+            var attachment = attachments.get(i);
+            try {
+                buffer.capture(attachment::tick);
+            } catch (Throwable e) {
+                CommonImpl.LOGGER.error("Failed to tick element holder " + attachment.holder() + " in parallel!", e);
+            }
+        })).join();
+
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[i] != null) {
+                try {
+                    buffers[i].flush();
+                } catch (Throwable e) {
+                    CommonImpl.LOGGER.error("Failed to flush packets of element holder " + attachments.get(i).holder() + "!", e);
+                }
+            }
+        }
+    }
+
+    private static ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(VirtualEntityImpl.PARALLEL_HOLDER_TICKING_THREADS, (p) -> {
+                var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                thread.setName("Polymer Element Holder Ticker #" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return pool;
+    }
+}
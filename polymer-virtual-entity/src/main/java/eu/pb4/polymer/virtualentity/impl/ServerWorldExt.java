@@ -0,0 +1,7 @@
+package eu.pb4.polymer.virtualentity.impl;
+
+import eu.pb4.polymer.virtualentity.api.ElementHolderIndex;
+
+public interface ServerWorldExt {
+    ElementHolderIndex polymerVE$getHolderIndex();
+}
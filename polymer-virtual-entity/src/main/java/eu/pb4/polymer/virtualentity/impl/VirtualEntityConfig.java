@@ -0,0 +1,16 @@
+package eu.pb4.polymer.virtualentity.impl;
+
+public class VirtualEntityConfig {
+    public String _c1 = "Delays creation of block bound element holders until chunk is sent to a player. Blocks can still override it";
+    public boolean deferBlockBoundHolders = false;
+    public String _c2 = "Ticks without watching players, after which deferred block bound holders are removed again. Set to -1 to keep them";
+    public int deferredHolderIdleTicks = 600;
+    public String _c3 = "Amount of threads used for ticking chunk attached holders marked as parallel safe. Set to 0 to tick them on server thread";
+    public int parallelHolderTickingThreads = Math.max(Runtime.getRuntime().availableProcessors() - 1, 0);
+    public String _c4 = "Minimal amount of parallel safe holders ticked at once, before worker threads are used";
+    public int parallelHolderTickingMinHolders = 64;
+    public String _c5 = "Milliseconds after which released virtual entity ids can be given to new elements. Set to -1 to never reuse them";
+    public int entityIdReuseDelay = 5000;
+    public String _c6 = "Caches encoded text of text displays per client language, if it contains translations. Disabling it skips caching of such texts";
+    public boolean cacheTextPerLocale = true;
+}
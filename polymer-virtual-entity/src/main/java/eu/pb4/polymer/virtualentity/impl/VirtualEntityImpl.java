@@ -0,0 +1,25 @@
+package eu.pb4.polymer.virtualentity.impl;
+
+import eu.pb4.polymer.common.impl.CommonImpl;
+import org.jetbrains.annotations.ApiStatus;
+
+@ApiStatus.Internal
+public class VirtualEntityImpl {
+    public static final boolean DEFER_BLOCK_BOUND_HOLDERS;
+    public static final int DEFERRED_HOLDER_IDLE_TICKS;
+    public static final int PARALLEL_HOLDER_TICKING_THREADS;
+    public static final int PARALLEL_HOLDER_TICKING_MIN_HOLDERS;
+    public static final long ENTITY_ID_REUSE_DELAY_NANOS;
+    public static final boolean CACHE_TEXT_PER_LOCALE;
+
+    static {
+        var config = CommonImpl.loadConfig("virtual-entity", VirtualEntityConfig.class);
+
+        DEFER_BLOCK_BOUND_HOLDERS = config.deferBlockBoundHolders;
+        DEFERRED_HOLDER_IDLE_TICKS = config.deferredHolderIdleTicks;
+        PARALLEL_HOLDER_TICKING_THREADS = Math.max(config.parallelHolderTickingThreads, 0);
+        PARALLEL_HOLDER_TICKING_MIN_HOLDERS = config.parallelHolderTickingMinHolders;
+        CACHE_TEXT_PER_LOCALE = config.cacheTextPerLocale;
+        ENTITY_ID_REUSE_DELAY_NANOS = config.entityIdReuseDelay < 0 ? -1 : config.entityIdReuseDelay * 1_000_000L;
+    }
+}
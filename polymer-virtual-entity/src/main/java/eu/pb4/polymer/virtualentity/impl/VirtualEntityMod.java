@@ -39,5 +39,12 @@ public class VirtualEntityMod implements ModInitializer {
 
 			return b != null ? b.holder().getElements().size() : -1;
 		})));
+
+		builder.then(literal("ve_ids").executes((ctx) -> {
+			ctx.getSource().sendFeedback(() -> Text.literal("Live: " + EntityIdAllocator.getLiveCount()
+					+ " | Reserved: " + EntityIdAllocator.getReservedCount()
+					+ " | Pending reuse: " + EntityIdAllocator.getPendingReleaseCount()), false);
+			return EntityIdAllocator.getLiveCount();
+		}));
 	}
 }
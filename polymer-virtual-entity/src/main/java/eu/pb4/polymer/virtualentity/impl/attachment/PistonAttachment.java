@@ -18,15 +18,25 @@ public final class PistonAttachment extends ChunkAttachment implements BlockAwar
     private final BlockPos blockPos;
     private final Direction direction;
     private BlockState blockState;
+    @Nullable
+    private PistonMovement movement;
 
-    public PistonAttachment(ElementHolder holder, WorldChunk chunk, BlockState state, BlockPos blockPos, Direction direction) {
+    public PistonAttachment(ElementHolder holder, WorldChunk chunk, BlockState state, BlockPos blockPos, Direction direction, @Nullable PistonMovement movement) {
         super(holder, chunk, Vec3d.ofCenter(blockPos), false);
         this.blockPos = blockPos;
         this.direction = direction;
         this.blockState = state;
+        this.movement = movement;
+        if (movement != null) {
+            movement.add(this);
+        }
         this.attach();
     }
 
+    public PistonAttachment(ElementHolder holder, WorldChunk chunk, BlockState state, BlockPos blockPos, Direction direction) {
+        this(holder, chunk, state, blockPos, direction, null);
+    }
+
     @Override
     protected void attach() {
         if (this.blockPos != null) {
@@ -40,9 +50,42 @@ public final class PistonAttachment extends ChunkAttachment implements BlockAwar
     }
 
     public void update(float d) {
+        if (this.movement != null) {
+            this.movement.update(d);
+        } else {
+            this.move(d);
+        }
+    }
+
+    void move(float d) {
+        if (this.holder().getAttachment() != this) {
+            return;
+        }
         this.pos = Vec3d.ofCenter(this.blockPos).offset(this.direction, d);
         this.holder().tick();
     }
+
+    /**
+     * Finishes movement of this holder alone, moving it to its final position.
+     */
+    public void finish() {
+        if (this.movement != null) {
+            this.movement.remove(this);
+            this.movement = null;
+        }
+        this.move(1);
+    }
+
+    /**
+     * Finishes movement of this holder as part of its group, used once piston block entity reaches full progress.
+     */
+    public void finishGrouped() {
+        this.update(1);
+        if (this.movement != null) {
+            this.movement.remove(this);
+            this.movement = null;
+        }
+    }
     public BlockPos getBlockPos() {
         return this.blockPos;
     }
@@ -0,0 +1,44 @@
+package eu.pb4.polymer.virtualentity.impl.attachment;
+
+import eu.pb4.polymer.virtualentity.impl.HolderPacketBuffer;
+import it.unimi.dsi.fastutil.objects.ReferenceArrayList;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.List;
+
+/**
+ * Group of holders moved by single piston action. All of them are updated together,
+ * with their packets sent as one bundle per player.
+ */
+@ApiStatus.Internal
+public final class PistonMovement {
+    private final List<PistonAttachment> attachments = new ReferenceArrayList<>();
+    private final HolderPacketBuffer buffer = new HolderPacketBuffer();
+    private float progress = -1;
+
+    void add(PistonAttachment attachment) {
+        this.attachments.add(attachment);
+    }
+
+    void remove(PistonAttachment attachment) {
+        this.attachments.remove(attachment);
+    }
+
+    /**
+     * Moves all holders of the group. Piston block entities of single action share their progress,
+     * so calls for the same progress from remaining ones are skipped.
+     */
+    void update(float progress) {
+        if (this.progress == progress) {
+            return;
+        }
+        this.progress = progress;
+
+        this.buffer.capture(() -> {
+            for (int i = 0; i < this.attachments.size(); i++) {
+                this.attachments.get(i).move(progress);
+            }
+        });
+        this.buffer.flushBundled();
+    }
+}
@@ -15,12 +15,12 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import java.util.ArrayList;
 
 @Mixin(ChunkDataSender.class)
 public class ChunkDataSenderMixin {
     @Inject(method = "sendChunkData", at = @At("TAIL"), require = 0)
     private static void polymerVE$addToHolograms(ServerPlayNetworkHandler handler, ServerWorld world, WorldChunk chunk, CallbackInfo ci) {
+        ((HolderAttachmentHolder) chunk).polymerVE$materializeDeferredHolders();
         for (var hologram : ((HolderAttachmentHolder) chunk).polymerVE$getHolders()) {
             hologram.startWatching(handler);
         }
@@ -28,8 +28,15 @@ public class ChunkDataSenderMixin {
 
     @Inject(method = "unload", at = @At("HEAD"), require = 0)
     private void polymerVE$chunkUnload(ServerPlayerEntity player, ChunkPos pos, CallbackInfo ci) {
-        for (var holder : new ArrayList<>(((HolderHolder) player.networkHandler).polymer$getHolders())) {
-            if (holder.getAttachment() != null && holder.getChunkPos().equals(pos)) {
+        var holders = ((HolderHolder) player.networkHandler).polymer$getHoldersInChunk(pos.toLong());
+        if (holders.isEmpty()) {
+            return;
+        }
+
+        var arr = holders.toArray(HolderHolder.ELEMENT_HOLDERS);
+        for (int i = 0; i < arr.length; i++) {
+            var holder = arr[i];
+            if (holder.getAttachment() != null) {
                 holder.getAttachment().updateTracking(player.networkHandler);
             }
         }
@@ -0,0 +1,22 @@
+package eu.pb4.polymer.virtualentity.mixin;
+
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import eu.pb4.polymer.virtualentity.impl.CachedText;
+import net.minecraft.entity.data.DataTracker;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+
+@Mixin(DataTracker.SerializedEntry.class)
+public class DataTrackerSerializedEntryMixin {
+    @WrapOperation(method = "write", at = @At(value = "INVOKE", target = "Lnet/minecraft/network/codec/PacketCodec;encode(Ljava/lang/Object;Ljava/lang/Object;)V"))
+    private void polymerVE$writeCachedText(PacketCodec<Object, Object> codec, Object buf, Object value, Operation<Void> original) {
+        if (value instanceof CachedText text && buf instanceof RegistryByteBuf registryByteBuf) {
+            text.write(registryByteBuf, (b, t) -> original.call(codec, b, t));
+        } else {
+            original.call(codec, buf, value);
+        }
+    }
+}
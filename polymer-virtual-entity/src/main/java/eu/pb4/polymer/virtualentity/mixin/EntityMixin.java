@@ -11,6 +11,9 @@ import net.minecraft.util.math.BlockPos;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -24,6 +27,15 @@ public abstract class EntityMixin implements HolderAttachmentHolder, EntityExt {
     @Unique
     private boolean polymerVE$virtualRiddenDirty = false;
 
+    @Inject(method = "setRemoved", at = @At("TAIL"))
+    private void polymerVE$removeFromIndex(Entity.RemovalReason reason, CallbackInfo ci) {
+        for (var attachment : this.polymerVE$holders) {
+            if (attachment.holder().getAttachment() == attachment) {
+                attachment.holder().removeFromIndex();
+            }
+        }
+    }
+
     @Override
     public void polymerVE$addHolder(HolderAttachment holderAttachment) {
         this.polymerVE$holders.add(holderAttachment);
@@ -4,6 +4,8 @@ package eu.pb4.polymer.virtualentity.mixin;
 import eu.pb4.polymer.virtualentity.api.ElementHolder;
 import eu.pb4.polymer.virtualentity.impl.HolderHolder;
 import eu.pb4.polymer.virtualentity.impl.PacketInterHandler;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.network.packet.c2s.play.PlayerInteractEntityC2SPacket;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
@@ -18,22 +20,73 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 @Mixin(ServerPlayNetworkHandler.class)
 public class ServerPlayNetworkHandlerMixin implements HolderHolder {
     @Unique
     private final Collection<ElementHolder> polymerVE$holders = new ArrayList<>();
+    @Unique
+    private final Long2ObjectOpenHashMap<List<ElementHolder>> polymerVE$holdersByChunk = new Long2ObjectOpenHashMap<>();
+    @Unique
+    private final Reference2LongOpenHashMap<ElementHolder> polymerVE$holderChunks = new Reference2LongOpenHashMap<>();
+    @Unique
+    private final List<ElementHolder> polymerVE$detachedHolders = new ArrayList<>();
+    @Unique
+    private int polymerVE$levelOfDetailTick;
     @Shadow
     public ServerPlayerEntity player;
 
     @Override
     public void polymer$addHolder(ElementHolder holderAttachment) {
         this.polymerVE$holders.add(holderAttachment);
+        var chunk = holderAttachment.getChunkPos().toLong();
+        this.polymerVE$holderChunks.put(holderAttachment, chunk);
+        this.polymerVE$holdersByChunk.computeIfAbsent(chunk, x -> new ArrayList<>()).add(holderAttachment);
     }
 
     @Override
     public void polymer$removeHolder(ElementHolder holderAttachment) {
         this.polymerVE$holders.remove(holderAttachment);
+        if (this.polymerVE$holderChunks.containsKey(holderAttachment)) {
+            this.polymerVE$removeFromChunk(this.polymerVE$holderChunks.removeLong(holderAttachment), holderAttachment);
+        }
+    }
+
+    @Override
+    public void polymer$updateHolderChunk(ElementHolder holder) {
+        if (!this.polymerVE$holderChunks.containsKey(holder)) {
+            return;
+        }
+        var oldChunk = this.polymerVE$holderChunks.getLong(holder);
+        var chunk = holder.getChunkPos().toLong();
+        if (oldChunk != chunk) {
+            this.polymerVE$removeFromChunk(oldChunk, holder);
+            this.polymerVE$holderChunks.put(holder, chunk);
+            this.polymerVE$holdersByChunk.computeIfAbsent(chunk, x -> new ArrayList<>()).add(holder);
+        }
+    }
+
+    @Override
+    public void polymer$markHolderDetached(ElementHolder holder) {
+        this.polymerVE$detachedHolders.add(holder);
+    }
+
+    @Override
+    public Collection<ElementHolder> polymer$getHoldersInChunk(long chunkPos) {
+        var list = this.polymerVE$holdersByChunk.get(chunkPos);
+        return list != null ? list : List.of();
+    }
+
+    @Unique
+    private void polymerVE$removeFromChunk(long chunk, ElementHolder holder) {
+        var list = this.polymerVE$holdersByChunk.get(chunk);
+        if (list != null) {
+            list.remove(holder);
+            if (list.isEmpty()) {
+                this.polymerVE$holdersByChunk.remove(chunk);
+            }
+        }
     }
 
     @Override
@@ -43,10 +96,25 @@ public class ServerPlayNetworkHandlerMixin implements HolderHolder {
 
     @Inject(method = "tick", at = @At("TAIL"))
     private void polymerVE$tick(CallbackInfo ci) {
+        var tick = ++this.polymerVE$levelOfDetailTick;
+        if (!this.polymerVE$holders.isEmpty()) {
+            var handler = (ServerPlayNetworkHandler) (Object) this;
+            for (var holder : this.polymerVE$holders.toArray(HolderHolder.ELEMENT_HOLDERS)) {
+                holder.tickLevelOfDetail(handler, tick);
+            }
+        }
+
+        if (this.polymerVE$detachedHolders.isEmpty()) {
+            return;
+        }
+
+        // Holders can get reattached within the same tick (for example when moved by pistons), so they are only removed here
+        var arr = this.polymerVE$detachedHolders.toArray(HolderHolder.ELEMENT_HOLDERS);
+        this.polymerVE$detachedHolders.clear();
         try {
-            for (var holder : new ArrayList<>(this.polymerVE$holders)) {
-                if (holder.getAttachment() == null) {
-                    holder.stopWatching(this.player);
+            for (int i = 0; i < arr.length; i++) {
+                if (arr[i].getAttachment() == null) {
+                    arr[i].stopWatching(this.player);
                 }
             }
         } catch (Throwable e) {
@@ -0,0 +1,18 @@
+package eu.pb4.polymer.virtualentity.mixin;
+
+import eu.pb4.polymer.virtualentity.api.ElementHolderIndex;
+import eu.pb4.polymer.virtualentity.impl.ServerWorldExt;
+import net.minecraft.server.world.ServerWorld;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+@Mixin(ServerWorld.class)
+public class ServerWorldMixin implements ServerWorldExt {
+    @Unique
+    private final ElementHolderIndex polymerVE$holderIndex = new ElementHolderIndex();
+
+    @Override
+    public ElementHolderIndex polymerVE$getHolderIndex() {
+        return this.polymerVE$holderIndex;
+    }
+}
@@ -51,7 +51,7 @@ public abstract class PistonBlockEntityMixin extends BlockEntity implements Pist
         var att = ((PistonBlockEntityMixin) (Object) blockEntity).attachment;
 
         if (att != null) {
-            att.update(1);
+            att.finishGrouped();
             BlockBoundAttachment.fromMoving(att.holder(), (ServerWorld) world, pos, blockEntity.getPushedBlock());
             ((PistonBlockEntityMixin) (Object) blockEntity).attachment = null;
         }
@@ -62,7 +62,7 @@ public abstract class PistonBlockEntityMixin extends BlockEntity implements Pist
         var att = this.attachment;
 
         if (att != null) {
-            att.update(1);
+            att.finish();
             BlockBoundAttachment.fromMoving(att.holder(), (ServerWorld) this.world, pos, this.getPushedBlock());
             this.attachment = null;
         }
@@ -9,6 +9,7 @@ import eu.pb4.polymer.virtualentity.api.attachment.BlockBoundAttachment;
 import eu.pb4.polymer.virtualentity.impl.HolderAttachmentHolder;
 import eu.pb4.polymer.virtualentity.impl.PistonExt;
 import eu.pb4.polymer.virtualentity.impl.attachment.PistonAttachment;
+import eu.pb4.polymer.virtualentity.impl.attachment.PistonMovement;
 import net.minecraft.block.PistonBlock;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.server.world.ServerWorld;
@@ -26,7 +27,8 @@ public class PistonBlockMixin {
     @Inject(method = "move", at = @At(value = "INVOKE",
             target = "Lnet/minecraft/util/math/BlockPos;offset(Lnet/minecraft/util/math/Direction;)Lnet/minecraft/util/math/BlockPos;", ordinal = 1, shift = At.Shift.BEFORE))
     private void collectAttachmentHolder(World world, BlockPos pos, Direction dir, boolean retract, CallbackInfoReturnable<Boolean> cir,
-                                         @Local(ordinal = 2) BlockPos blockPos, @Share("attachment") LocalRef<PistonAttachment> attachment) {
+                                         @Local(ordinal = 2) BlockPos blockPos, @Share("attachment") LocalRef<PistonAttachment> attachment,
+                                         @Share("movement") LocalRef<PistonMovement> movement) {
         if (world instanceof ServerWorld serverWorld) {
             var x = BlockBoundAttachment.get(world, blockPos);
             if (x != null && x.getBlockState().getBlock() instanceof BlockWithElementHolder holder) {
@@ -36,7 +38,10 @@ public class PistonBlockMixin {
                     if (transformed == x.holder()) {
                         x.destroy();
                     }
-                    attachment.set(new PistonAttachment(transformed, world.getWorldChunk(blockPos), x.getBlockState(), blockPos, retract ? dir : dir.getOpposite()));
+                    if (movement.get() == null) {
+                        movement.set(new PistonMovement());
+                    }
+                    attachment.set(new PistonAttachment(transformed, world.getWorldChunk(blockPos), x.getBlockState(), blockPos, retract ? dir : dir.getOpposite(), movement.get()));
                 }
             }
         }
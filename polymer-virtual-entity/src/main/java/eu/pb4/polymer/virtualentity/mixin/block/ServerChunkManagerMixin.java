@@ -1,8 +1,10 @@
 package eu.pb4.polymer.virtualentity.mixin.block;
 
 import com.llamalad7.mixinextras.sugar.Local;
+import eu.pb4.polymer.virtualentity.api.attachment.HolderAttachment;
 import eu.pb4.polymer.virtualentity.impl.HolderAttachmentHolder;
 import eu.pb4.polymer.virtualentity.impl.HolderHolder;
+import eu.pb4.polymer.virtualentity.impl.ParallelHolderTicker;
 import net.minecraft.server.world.ServerChunkManager;
 import net.minecraft.util.profiler.Profiler;
 import net.minecraft.world.chunk.WorldChunk;
@@ -12,21 +14,41 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Mixin(ServerChunkManager.class)
 public class ServerChunkManagerMixin {
+    @Unique
+    private final List<HolderAttachment> polymerVE$parallelHolders = new ArrayList<>();
+
     @Inject(method = "tickChunks(Lnet/minecraft/util/profiler/Profiler;JLjava/util/List;)V", at = @At("TAIL"))
     private void tickElementHoldersEvenIfBlocksDont(Profiler profiler, long l, List<WorldChunk> list, CallbackInfo ci) {
+        var parallel = ParallelHolderTicker.isEnabled() ? this.polymerVE$parallelHolders : null;
+
         for (var chunk : list) {
             var holo = ((HolderAttachmentHolder) chunk).polymerVE$getHolders();
 
             if (!holo.isEmpty()) {
                 var arr = holo.toArray(HolderHolder.HOLDER_ATTACHMENTS);
                 for (int i = 0; i < arr.length; i++) {
-                    arr[i].tick();
+                    if (parallel != null && arr[i].holder().isParallelSafe()) {
+                        parallel.add(arr[i]);
+                    } else {
+                        arr[i].tick();
+                    }
                 }
             }
+
+            ((HolderAttachmentHolder) chunk).polymerVE$tickDeferredHolders();
+        }
+
+        if (parallel != null && !parallel.isEmpty()) {
+            try {
+                ParallelHolderTicker.tick(parallel);
+            } finally {
+                parallel.clear();
+            }
         }
     }
 }
@@ -1,10 +1,16 @@
 package eu.pb4.polymer.virtualentity.mixin.block;
 
 import eu.pb4.polymer.virtualentity.api.BlockWithElementHolder;
+import eu.pb4.polymer.virtualentity.api.VirtualEntityUtils;
 import eu.pb4.polymer.virtualentity.api.attachment.BlockBoundAttachment;
 import eu.pb4.polymer.virtualentity.api.attachment.HolderAttachment;
 import eu.pb4.polymer.virtualentity.impl.HolderAttachmentHolder;
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import eu.pb4.polymer.virtualentity.impl.VirtualEntityImpl;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMaps;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
 import net.minecraft.block.BlockState;
 import net.minecraft.registry.Registry;
 import net.minecraft.server.world.ServerWorld;
@@ -37,9 +43,13 @@ import java.util.*;
 public abstract class WorldChunkMixin extends Chunk implements HolderAttachmentHolder {
 
     @Unique
-    private final Collection<HolderAttachment> polymerVE$holders = new ArrayList<>();
+    private final Collection<HolderAttachment> polymerVE$holders = new ReferenceLinkedOpenHashSet<>();
     @Unique
-    private final Map<BlockPos, BlockBoundAttachment> polymerVE$posHolders = new Object2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<BlockBoundAttachment> polymerVE$posHolders = new Long2ObjectOpenHashMap<>();
+    @Unique
+    private final Long2ObjectOpenHashMap<BlockState> polymerVE$deferredHolders = new Long2ObjectOpenHashMap<>();
+    @Unique
+    private final Reference2IntOpenHashMap<BlockBoundAttachment> polymerVE$idleDeferredHolders = new Reference2IntOpenHashMap<>();
     @Shadow
     @Final
     private World world;
@@ -68,6 +78,11 @@ public abstract class WorldChunkMixin extends Chunk implements HolderAttachmentH
                                     if (state.getBlock() instanceof BlockWithElementHolder blockWithElementHolder) {
                                         var blockPos = pos.getBlockPos(x, this.sectionIndexToCoord(i) * 16 + y, z);
 
+                                        if (blockWithElementHolder.deferElementHolderCreation(serverWorld, blockPos, state)) {
+                                            this.polymerVE$deferredHolders.put(blockPos.asLong(), state);
+                                            continue;
+                                        }
+
                                         var holder = blockWithElementHolder.createElementHolder(serverWorld, blockPos, state);
                                         if (holder != null) {
                                             BlockBoundAttachment.of(holder, serverWorld, (WorldChunk) (Object) this, blockPos, state);
@@ -84,20 +99,39 @@ public abstract class WorldChunkMixin extends Chunk implements HolderAttachmentH
 
     @Inject(method = "setBlockState", at = @At(value = "INVOKE", target = "Lnet/minecraft/block/BlockState;onStateReplaced(Lnet/minecraft/world/World;Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/BlockState;Z)V"), locals = LocalCapture.CAPTURE_FAILSOFT)
     private void polymerVE$removeOld(BlockPos pos, BlockState state, boolean moved, CallbackInfoReturnable<BlockState> cir, int i, ChunkSection section, boolean bool, int j, int k, int l, BlockState oldBlockState) {
-        var x = this.polymerVE$posHolders.get(pos);
+        var x = this.polymerVE$posHolders.get(pos.asLong());
         if (x != null) {
             if (x.getBlockState().getBlock() != state.getBlock()) {
                 this.polymerVE$removePosHolder(pos);
             } else {
                 x.setBlockState(state);
             }
+        } else if (!this.polymerVE$deferredHolders.isEmpty()) {
+            var deferred = this.polymerVE$deferredHolders.get(pos.asLong());
+            if (deferred != null) {
+                if (deferred.getBlock() != state.getBlock()) {
+                    this.polymerVE$deferredHolders.remove(pos.asLong());
+                } else {
+                    this.polymerVE$deferredHolders.put(pos.asLong(), state);
+                }
+            }
         }
     }
 
     @Inject(method = "setBlockState", at = @At(value = "FIELD", target = "Lnet/minecraft/world/World;isClient:Z", ordinal = 1, shift = At.Shift.BEFORE), locals = LocalCapture.CAPTURE_FAILSOFT)
     private void polymerVE$addNew(BlockPos pos, BlockState state, boolean moved, CallbackInfoReturnable<BlockState> cir, int i, ChunkSection section, boolean bool, int j, int k, int l, BlockState oldBlockState) {
-        var x = this.polymerVE$posHolders.get(pos);
-        if (x == null && state.getBlock() instanceof BlockWithElementHolder blockWithElementHolder && this.world instanceof ServerWorld serverWorld) {
+        var x = this.polymerVE$posHolders.get(pos.asLong());
+        if (x == null && state.getBlock() instanceof BlockWithElementHolder blockWithElementHolder && this.world instanceof ServerWorld serverWorld
+                && !this.polymerVE$deferredHolders.containsKey(pos.asLong())) {
+            if (blockWithElementHolder.deferElementHolderCreation(serverWorld, pos, state)) {
+                if (VirtualEntityUtils.getPlayersWatchingChunk((WorldChunk) (Object) this).isEmpty()) {
+                    this.polymerVE$deferredHolders.put(pos.asLong(), state);
+                } else {
+                    this.polymerVE$createDeferredHolder(serverWorld, pos.toImmutable(), state);
+                }
+                return;
+            }
+
             var holder = blockWithElementHolder.createElementHolder(serverWorld, pos, state);
             if (holder != null) {
                 new BlockBoundAttachment(holder, (WorldChunk) (Object) this, state, pos.toImmutable(), Vec3d.ofCenter(pos).add(blockWithElementHolder.getElementHolderOffset(serverWorld, pos, state)), blockWithElementHolder.tickElementHolder(serverWorld, pos, state));
@@ -105,11 +139,65 @@ public abstract class WorldChunkMixin extends Chunk implements HolderAttachmentH
         }
     }
 
+    @Unique
+    private void polymerVE$createDeferredHolder(ServerWorld world, BlockPos pos, BlockState state) {
+        if (!(state.getBlock() instanceof BlockWithElementHolder blockWithElementHolder)) {
+            return;
+        }
+
+        var holder = blockWithElementHolder.createElementHolder(world, pos, state);
+        if (holder != null) {
+            var attachment = BlockBoundAttachment.of(holder, world, (WorldChunk) (Object) this, pos, state);
+            if (attachment != null && VirtualEntityImpl.DEFERRED_HOLDER_IDLE_TICKS >= 0) {
+                this.polymerVE$idleDeferredHolders.put(attachment, 0);
+            }
+        }
+    }
+
+    @Override
+    public void polymerVE$materializeDeferredHolders() {
+        if (this.polymerVE$deferredHolders.isEmpty() || !(this.world instanceof ServerWorld serverWorld)) {
+            return;
+        }
+
+        var deferred = this.polymerVE$deferredHolders.clone();
+        this.polymerVE$deferredHolders.clear();
+        for (var entry : Long2ObjectMaps.fastIterable(deferred)) {
+            this.polymerVE$createDeferredHolder(serverWorld, BlockPos.fromLong(entry.getLongKey()), entry.getValue());
+        }
+    }
+
+    @Override
+    public void polymerVE$tickDeferredHolders() {
+        if (this.polymerVE$idleDeferredHolders.isEmpty()) {
+            return;
+        }
+
+        var iterator = Reference2IntMaps.fastIterator(this.polymerVE$idleDeferredHolders);
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            var attachment = entry.getKey();
+            if (attachment.holder().getAttachment() != attachment) {
+                iterator.remove();
+            } else if (!attachment.holder().getWatchingPlayers().isEmpty()) {
+                entry.setValue(0);
+            } else if (entry.getIntValue() < VirtualEntityImpl.DEFERRED_HOLDER_IDLE_TICKS) {
+                entry.setValue(entry.getIntValue() + 1);
+            } else {
+                iterator.remove();
+                this.polymerVE$posHolders.remove(attachment.getBlockPos().asLong());
+                this.polymerVE$holders.remove(attachment);
+                attachment.holder().destroy();
+                this.polymerVE$deferredHolders.put(attachment.getBlockPos().asLong(), attachment.getBlockState());
+            }
+        }
+    }
+
     @Override
     public void polymerVE$addHolder(HolderAttachment holderAttachment) {
         this.polymerVE$holders.add(holderAttachment);
         if (holderAttachment instanceof BlockBoundAttachment blockBoundAttachment) {
-            this.polymerVE$posHolders.put(blockBoundAttachment.getBlockPos(), blockBoundAttachment);
+            this.polymerVE$posHolders.put(blockBoundAttachment.getBlockPos().asLong(), blockBoundAttachment);
         }
     }
 
@@ -117,18 +205,26 @@ public abstract class WorldChunkMixin extends Chunk implements HolderAttachmentH
     public void polymerVE$removeHolder(HolderAttachment holderAttachment) {
         this.polymerVE$holders.remove(holderAttachment);
         if (holderAttachment instanceof BlockBoundAttachment blockBoundAttachment) {
-            this.polymerVE$posHolders.remove(blockBoundAttachment);
+            this.polymerVE$posHolders.remove(blockBoundAttachment.getBlockPos().asLong(), blockBoundAttachment);
         }
     }
 
     @Override
     public BlockBoundAttachment polymerVE$getPosHolder(BlockPos pos) {
-        return this.polymerVE$posHolders.get(pos);
+        var x = this.polymerVE$posHolders.get(pos.asLong());
+        if (x == null && !this.polymerVE$deferredHolders.isEmpty() && this.world instanceof ServerWorld serverWorld) {
+            var state = this.polymerVE$deferredHolders.remove(pos.asLong());
+            if (state != null) {
+                this.polymerVE$createDeferredHolder(serverWorld, pos.toImmutable(), state);
+                x = this.polymerVE$posHolders.get(pos.asLong());
+            }
+        }
+        return x;
     }
 
     @Override
     public void polymerVE$removePosHolder(BlockPos pos) {
-        var x = this.polymerVE$posHolders.remove(pos);
+        var x = this.polymerVE$posHolders.remove(pos.asLong());
         if (x != null) {
             this.polymerVE$holders.remove(x);
             x.destroy();